@@ -0,0 +1,39 @@
+package com.upgrad.Grofers.api.cache;
+
+import com.upgrad.Grofers.service.business.CatalogSnapshotService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpMethod;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * CatalogETagInterceptor tags every catalog GET response with an ETag holding the SHA-256 digest of the catalog
+ * snapshot content. All the catalog responses only change with the snapshot content, so a request whose If-None-Match
+ * holds the current tag is answered with 304 Not Modified before the controller, the service layer or the response
+ * cache is reached. The digest rather than the per-process snapshot version is used so that every instance behind the
+ * load balancer, and an instance after a restart, gives the same tag for the same catalog and different tags for
+ * different ones. The tag is weak since the gzip and identity bodies of a response share it.
+ */
+@Component
+public class CatalogETagInterceptor extends HandlerInterceptorAdapter {
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!HttpMethod.GET.matches(request.getMethod()) && !HttpMethod.HEAD.matches(request.getMethod())) {
+            return true;
+        }
+        // Sets the ETag header, and the 304 status when the client already holds the current catalog content.
+        return !new ServletWebRequest(request, response).checkNotModified(eTag(catalogSnapshotService.snapshot().fingerprint()));
+    }
+
+    private static String eTag(final String fingerprint) {
+        return "W/\"catalog-" + fingerprint + "\"";
+    }
+}
@@ -0,0 +1,178 @@
+package com.upgrad.Grofers.api.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.upgrad.Grofers.service.business.CatalogSnapshotService;
+import com.upgrad.Grofers.service.common.GenericErrorCode;
+import com.upgrad.Grofers.service.common.UnexpectedException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * CatalogResponseCache keeps the response bodies of the catalog endpoints as ready-to-write UTF-8 JSON byte arrays,
+ * together with their gzip-compressed variant, keyed by endpoint and parameters.
+ * The catalog only changes with its snapshot version, so the whole cache is dropped whenever the version changes.
+ */
+@Component
+public class CatalogResponseCache {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CatalogSnapshotService catalogSnapshotService;
+
+    @Value("${grofers.response-cache.max-entries:1000}")
+    private int maxEntries;
+
+    private final Map<String, CachedResponse> entries = new LinkedHashMap<String, CachedResponse>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    private long entriesVersion = -1;
+
+    /**
+     * Builds the response model for a cache key. Exceptions thrown while building are passed on and nothing is cached.
+     */
+    @FunctionalInterface
+    public interface ResponseBuilder<E extends Exception> {
+        Object build() throws E;
+    }
+
+    /**
+     * This method returns the cached response body for the given key, building and serializing it on a miss.
+     *
+     * @param key            - The endpoint and parameters identifying the response.
+     * @param builder        - Builds the response model on a cache miss.
+     * @param acceptEncoding - The Accept-Encoding request header, used to pick the gzip variant.
+     * @return - ResponseEntity<byte[]> with the serialized body along with Http status OK.
+     */
+    public <E extends Exception> ResponseEntity<byte[]> get(final String key, final ResponseBuilder<E> builder,
+                                                            final String acceptEncoding) throws E {
+        final long version = catalogSnapshotService.version();
+        CachedResponse response = lookup(key, version);
+        if (response == null) {
+            // Built outside the lock; concurrent misses on the same key just build the same bytes twice.
+            response = serialize(builder.build(), version);
+            store(key, response);
+        }
+        return toResponseEntity(response, acceptEncoding);
+    }
+
+    private synchronized CachedResponse lookup(final String key, final long version) {
+        if (entriesVersion != version) {
+            entries.clear();
+            entriesVersion = version;
+            return null;
+        }
+        return entries.get(key);
+    }
+
+    private synchronized void store(final String key, final CachedResponse response) {
+        if (response.version == entriesVersion) {
+            entries.put(key, response);
+        }
+    }
+
+    private CachedResponse serialize(final Object model, final long version) {
+        try {
+            byte[] body = objectMapper.writeValueAsBytes(model);
+            return new CachedResponse(version, body, gzip(body));
+        } catch (JsonProcessingException e) {
+            throw new UnexpectedException(GenericErrorCode.GEN_001, e);
+        }
+    }
+
+    private static byte[] gzip(final byte[] body) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(Math.max(64, body.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(bytes)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UnexpectedException(GenericErrorCode.GEN_001, e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static ResponseEntity<byte[]> toResponseEntity(final CachedResponse response, final String acceptEncoding) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON_UTF8);
+        headers.add(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding)) {
+            headers.add(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return new ResponseEntity<byte[]>(response.gzipBody, headers, HttpStatus.OK);
+        }
+        return new ResponseEntity<byte[]>(response.body, headers, HttpStatus.OK);
+    }
+
+    /**
+     * Reads the codings of an Accept-Encoding header with their q-values. gzip is accepted when it is listed (or
+     * x-gzip, or only the * wildcard is) with a q-value above 0; "gzip;q=0" is a refusal.
+     */
+    static boolean acceptsGzip(final String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        double gzipQuality = -1;
+        double wildcardQuality = -1;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parameters = coding.split(";");
+            String name = parameters[0].trim().toLowerCase(Locale.ROOT);
+            double quality = 1;
+            for (int i = 1; i < parameters.length; i++) {
+                String parameter = parameters[i].trim();
+                if (parameter.length() > 2 && (parameter.charAt(0) == 'q' || parameter.charAt(0) == 'Q')
+                        && parameter.charAt(1) == '=') {
+                    quality = quality(parameter.substring(2).trim());
+                }
+            }
+            if (name.equals("gzip") || name.equals("x-gzip")) {
+                gzipQuality = Math.max(gzipQuality, quality);
+            } else if (name.equals("*")) {
+                wildcardQuality = Math.max(wildcardQuality, quality);
+            }
+        }
+        return gzipQuality >= 0 ? gzipQuality > 0 : wildcardQuality > 0;
+    }
+
+    /**
+     * @return the q-value, or 0 for a malformed one so that a coding is never sent on a value we cannot read.
+     */
+    private static double quality(final String value) {
+        try {
+            double quality = Double.parseDouble(value);
+            return quality >= 0 && quality <= 1 ? quality : 0;
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static final class CachedResponse {
+
+        private final long version;
+
+        private final byte[] body;
+
+        private final byte[] gzipBody;
+
+        private CachedResponse(final long version, final byte[] body, final byte[] gzipBody) {
+            this.version = version;
+            this.body = body;
+            this.gzipBody = gzipBody;
+        }
+    }
+}
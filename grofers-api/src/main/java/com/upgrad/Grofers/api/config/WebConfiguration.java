@@ -0,0 +1,23 @@
+package com.upgrad.Grofers.api.config;
+
+
+import com.upgrad.Grofers.api.cache.CatalogETagInterceptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * This Configuration registers the Spring MVC interceptors of the project.
+ */
+@Configuration
+public class WebConfiguration implements WebMvcConfigurer {
+
+	@Autowired
+	private CatalogETagInterceptor catalogETagInterceptor;
+
+	@Override
+	public void addInterceptors(InterceptorRegistry registry) {
+		registry.addInterceptor(catalogETagInterceptor).addPathPatterns("/store", "/store/**", "/category", "/category/**");
+	}
+}
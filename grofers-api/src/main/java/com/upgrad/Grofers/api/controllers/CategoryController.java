@@ -5,18 +5,22 @@ import com.upgrad.Grofers.api.CategoriesListResponse;
 import com.upgrad.Grofers.api.CategoryDetailsResponse;
 import com.upgrad.Grofers.api.CategoryListResponse;
 import com.upgrad.Grofers.api.ItemList;
+import com.upgrad.Grofers.api.cache.CatalogResponseCache;
+import com.upgrad.Grofers.api.stream.StreamingJsonResponse;
 import com.upgrad.Grofers.service.business.CategoryService;
 import com.upgrad.Grofers.service.entity.CategoryEntity;
 import com.upgrad.Grofers.service.entity.ItemEntity;
 import com.upgrad.Grofers.service.exception.CategoryNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.*;
 @RestController
@@ -26,17 +30,53 @@ public class CategoryController {
     @Autowired
     private CategoryService categoryService;
 
+    @Autowired
+    private CatalogResponseCache catalogResponseCache;
+
+    @Autowired
+    private StreamingJsonResponse streamingJsonResponse;
+
     /**
      * A controller method to get all address from the database.
      *
      * @param categoryId - The uuid of the category whose detail is asked from the database..
-     * @return - ResponseEntity<CategoryDetailsResponse> type object along with Http status OK.
+     * @param acceptEncoding - The Accept-Encoding request header, a gzip-compressed body is returned when it allows gzip.
+     * @return - ResponseEntity<byte[]> type object holding the serialized CategoryDetailsResponse along with Http status OK.
      * @throws CategoryNotFoundException
      */
     @RequestMapping(method = RequestMethod.GET, path = "/{category_id}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<CategoryDetailsResponse> getCategoryById(@PathVariable("category_id") String categoryId) throws CategoryNotFoundException {
+    public ResponseEntity<byte[]> getCategoryById(@PathVariable("category_id") String categoryId,
+                                                  @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
+            throws CategoryNotFoundException {
+        return catalogResponseCache.get("category/" + categoryId, () -> getCategoryDetailsResponse(categoryId), acceptEncoding);
+    }
+
+    /**
+     * A controller method to get all categories from the database.
+     *
+     * @param acceptEncoding - The Accept-Encoding request header, a gzip-compressed body is returned when it allows gzip.
+     * @return - ResponseEntity<byte[]> type object holding the serialized CategoriesListResponse along with Http status OK.
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<byte[]> getAllCategories(@RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        return catalogResponseCache.get("category", this::getCategoriesListResponse, acceptEncoding);
+    }
+
+    /**
+     * A controller method to stream all categories without building the whole list in memory.
+     *
+     * @return - ResponseEntity<StreamingResponseBody> writing the CategoriesListResponse JSON one category at a time along with Http status OK.
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "", params = "stream=true", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllCategories() {
+        return streamingJsonResponse.array("categories", categoryService.getAllCategoriesOrderedByName(),
+                category -> new CategoryListResponse().id(UUID.fromString(category.getUuid())).categoryName(category.getCategoryName()),
+                CategoryListResponse.class);
+    }
+
+    private CategoryDetailsResponse getCategoryDetailsResponse(String categoryId) throws CategoryNotFoundException {
         final CategoryEntity category = categoryService.getCategoryById(categoryId);
-        List<ItemEntity> items = category.getItems();
+        List<ItemEntity> items = new ArrayList<ItemEntity>(category.getItems());
         Comparator<ItemEntity> compareByItemName = new Comparator<ItemEntity>() {
             @Override
             public int compare(ItemEntity i1, ItemEntity i2) {
@@ -48,34 +88,18 @@ public class CategoryController {
 
         CategoryDetailsResponse categoryDetailsResponse = new CategoryDetailsResponse();
         categoryDetailsResponse.id(UUID.fromString(category.getUuid())).categoryName(category.getCategoryName()).itemList(itemLists);
-
-        return new ResponseEntity<CategoryDetailsResponse>(categoryDetailsResponse, HttpStatus.OK);
-
+        return categoryDetailsResponse;
     }
 
-    /**
-     * A controller method to get all categories from the database.
-     *
-     * @return - ResponseEntity<CategoriesListResponse> type object along with Http status OK.
-     */
-    @RequestMapping(method = RequestMethod.GET, path = "", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<CategoriesListResponse> getAllCategories() {
+    private CategoriesListResponse getCategoriesListResponse() {
+        // The catalog snapshot keeps the categories ordered by name, so no sorting is needed here.
         final List<CategoryEntity> categories = categoryService.getAllCategoriesOrderedByName();
-        Comparator<CategoryEntity> compareByCategoryName = new Comparator<CategoryEntity>() {
-            @Override
-            public int compare(CategoryEntity c1, CategoryEntity c2) {
-                return c1.getCategoryName().compareTo(c2.getCategoryName());
-            }
-            
-        };
-        Collections.sort(categories, compareByCategoryName);
         CategoriesListResponse categoriesListResponse = new CategoriesListResponse();
         for (CategoryEntity category : categories) {
             CategoryListResponse categoryListResponse = new CategoryListResponse();
             categoryListResponse.id(UUID.fromString(category.getUuid())).categoryName(category.getCategoryName());
             categoriesListResponse.addCategoriesItem(categoryListResponse);
         }
-        return new ResponseEntity<CategoriesListResponse>(categoriesListResponse, HttpStatus.OK);
-
+        return categoriesListResponse;
     }
 }
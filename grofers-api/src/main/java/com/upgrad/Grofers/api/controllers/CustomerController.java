@@ -3,11 +3,11 @@ import com.upgrad.Grofers.api.*;
 import com.upgrad.Grofers.service.business.AddressService;
 import com.upgrad.Grofers.service.business.AddressServiceImpl;
 import com.upgrad.Grofers.service.business.CustomerService;
-import com.upgrad.Grofers.service.business.CustomerServiceImpl;
 import com.upgrad.Grofers.service.entity.CustomerAuthEntity;
 import com.upgrad.Grofers.service.entity.CustomerEntity;
 import com.upgrad.Grofers.service.exception.AuthenticationFailedException;
 import com.upgrad.Grofers.service.exception.AuthorizationFailedException;
+import com.upgrad.Grofers.service.exception.LoginThrottledException;
 import com.upgrad.Grofers.service.exception.SignUpRestrictedException;
 import com.upgrad.Grofers.service.exception.UpdateCustomerException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -17,8 +17,10 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import javax.servlet.http.HttpServletRequest;
 import java.util.Base64;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/customer")
@@ -31,11 +33,12 @@ public class CustomerController {
 	 * A controller method for customer signup.
 	 *
 	 * @param signupCustomerRequest - This argument contains all the attributes required to store customer details in the database.
-	 * @return - ResponseEntity<SignupCustomerResponse> type object along with Http status CREATED.
+	 * @return - CompletableFuture of the ResponseEntity<SignupCustomerResponse> type object along with Http status CREATED,
+	 * completed once the password is hashed and the customer is saved.
 	 * @throws SignUpRestrictedException
 	 */
 	@RequestMapping(method = RequestMethod.POST, path = "/customer/signup", consumes = MediaType.APPLICATION_JSON_UTF8_VALUE, produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-	public ResponseEntity<SignupCustomerResponse> register(@RequestBody final SignupCustomerRequest signupCustomerRequest)
+	public CompletableFuture<ResponseEntity<SignupCustomerResponse>> register(@RequestBody final SignupCustomerRequest signupCustomerRequest)
 			throws SignUpRestrictedException {
 		final CustomerEntity customerEntity = new CustomerEntity();
 		customerEntity.setUuid(UUID.randomUUID().toString());
@@ -44,36 +47,40 @@ public class CustomerController {
 		customerEntity.setEmail(signupCustomerRequest.getEmailAddress());
 		customerEntity.setContactNumber(signupCustomerRequest.getContactNumber());
 		customerEntity.setPassword(signupCustomerRequest.getPassword());
-		CustomerServiceImpl customerService=new CustomerServiceImpl();
-		CustomerEntity createdCoustmerserEntity = customerService.saveCustomer(customerEntity);
-		SignupCustomerResponse customerResponse = new SignupCustomerResponse().id(createdCoustmerserEntity.getUuid())
-				.status("Customer SUCCESSFULLY REGISTERED");
-		return new ResponseEntity<SignupCustomerResponse>(customerResponse, HttpStatus.CREATED);
+		return customerService.saveCustomer(customerEntity).thenApply(createdCoustmerserEntity -> {
+			SignupCustomerResponse customerResponse = new SignupCustomerResponse().id(createdCoustmerserEntity.getUuid())
+					.status("Customer SUCCESSFULLY REGISTERED");
+			return new ResponseEntity<SignupCustomerResponse>(customerResponse, HttpStatus.CREATED);
+		});
 	}
 
 	/**
 	 * A controller method for customer authentication.
 	 *
 	 * @param authorization - A field in the request header which contains the customer credentials as Basic authentication.
-	 * @return - ResponseEntity<LoginResponse> type object along with Http status OK.
+	 * @param request - The http request, giving the client address the login throttle keys on.
+	 * @return - CompletableFuture of the ResponseEntity<LoginResponse> type object along with Http status OK,
+	 * completed once the password is hashed and checked.
 	 * @throws AuthenticationFailedException
+	 * @throws LoginThrottledException
 	 */
 	@RequestMapping(method = RequestMethod.POST, path = "/customer/login", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-	public ResponseEntity<LoginResponse> login(@RequestHeader("authorization") final String authorization)
-			throws AuthenticationFailedException {
+	public CompletableFuture<ResponseEntity<LoginResponse>> login(@RequestHeader("authorization") final String authorization,
+																  final HttpServletRequest request)
+			throws AuthenticationFailedException, LoginThrottledException {
 		String[] authorizationArray = authorization.split("Basic ");
 		byte[] decode = Base64.getDecoder().decode(authorizationArray[1]);
 		String decodedText = new String(decode);
 		String[] authArray = decodedText.split(":");
-		CustomerServiceImpl customerService=new CustomerServiceImpl();
-		CustomerAuthEntity customerAuthEntity = customerService.authenticate(authArray[0], authArray[1]);
-		CustomerEntity customer = customerAuthEntity.getCustomer();
+		return customerService.authenticate(authArray[0], authArray[1], request.getRemoteAddr()).thenApply(customerAuthEntity -> {
+			CustomerEntity customer = customerAuthEntity.getCustomer();
 
-		LoginResponse loginResponse = new LoginResponse().id(customer.getUuid()).message("SIGNED IN SUCCESSFULLY");
+			LoginResponse loginResponse = new LoginResponse().id(customer.getUuid()).message("SIGNED IN SUCCESSFULLY");
 
-		HttpHeaders headers = new HttpHeaders();
-		headers.add("access-token", customerAuthEntity.getAccessToken());
-		return new ResponseEntity<LoginResponse>(loginResponse, headers, HttpStatus.OK);
+			HttpHeaders headers = new HttpHeaders();
+			headers.add("access-token", customerAuthEntity.getAccessToken());
+			return new ResponseEntity<LoginResponse>(loginResponse, headers, HttpStatus.OK);
+		});
 	}
 
 	/**
@@ -95,7 +102,6 @@ public class CustomerController {
 		} catch (ArrayIndexOutOfBoundsException e) {
 			bearerToken = accessToken;
 		}
-		CustomerServiceImpl customerService=new CustomerServiceImpl();
 		CustomerAuthEntity customerAuthEntity = customerService.logout(bearerToken);
 		if (customerAuthEntity != null) {
 			logoutResponse = new LogoutResponse().id(customerAuthEntity.getUuid()).message("SIGN OUT SUCCESSFULLY");
@@ -116,7 +122,6 @@ public class CustomerController {
     public <updatePasswordRequest> ResponseEntity<LogoutResponse> updatePassword(@RequestHeader("authorization") final String authorization , final String updatePasswordRequest)throws UpdateCustomerException, AuthorizationFailedException
     {
 		LogoutResponse logoutResponse = null;
-		CustomerService customerService=new CustomerServiceImpl();
 		CustomerEntity customerEntity=new CustomerEntity();
 		String oldPassword=customerEntity.getPassword();
 		CustomerEntity customerEntity1 = customerService.updateCustomerPassword(oldPassword,updatePasswordRequest,customerEntity);
@@ -2,29 +2,36 @@ package com.upgrad.Grofers.api.controllers;
 
 
 import com.upgrad.Grofers.api.*;
-import com.upgrad.Grofers.service.business.CategoryService;
+import com.upgrad.Grofers.api.cache.CatalogResponseCache;
+import com.upgrad.Grofers.api.stream.StreamingJsonResponse;
 import com.upgrad.Grofers.service.business.CustomerService;
 import com.upgrad.Grofers.service.business.CustomerServiceImpl;
 import com.upgrad.Grofers.service.business.ItemService;
-import com.upgrad.Grofers.service.dao.*;
+import com.upgrad.Grofers.service.business.StorePage;
 import com.upgrad.Grofers.service.entity.CategoryEntity;
 import com.upgrad.Grofers.service.entity.ItemEntity;
 import com.upgrad.Grofers.service.entity.StoreEntity;
+import com.upgrad.Grofers.service.entity.StoreSummaryEntity;
 import com.upgrad.Grofers.service.exception.CategoryNotFoundException;
+import com.upgrad.Grofers.service.exception.InvalidPageTokenException;
 import com.upgrad.Grofers.service.exception.StoreNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.math.BigDecimal;
-import java.util.Collections;
-import java.util.Comparator;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 @RestController
 @RequestMapping("/store")
@@ -35,140 +42,214 @@ public class StoreController {
 
     @Autowired private ItemService itemService;
 
-    @Autowired private CategoryService categoryService;
-
     @Autowired private CustomerService customerService;
 
+    @Autowired private CatalogResponseCache catalogResponseCache;
+
+    @Autowired private StreamingJsonResponse streamingJsonResponse;
+
     /**
      * A controller method to get a Store details from the database.
      *
      * @param StoreId - The uuid of the Store whose details has to be fetched from the database.
-     * @return - ResponseEntity<StoreDetailsResponse> type object along with Http status OK.
+     * @param acceptEncoding - The Accept-Encoding request header, a gzip-compressed body is returned when it allows gzip.
+     * @return - ResponseEntity<byte[]> type object holding the serialized StoreDetailsResponse along with Http status OK.
      * @throws StoreNotFoundException
      */
     @RequestMapping(method = RequestMethod.GET, path = "/{Store_id}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<StoreDetailsResponse> getStoreDetails(@PathVariable("Store_id") String StoreId)
+    public ResponseEntity<byte[]> getStoreDetails(@PathVariable("Store_id") String StoreId,
+                                                  @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
             throws StoreNotFoundException {
-
-        StoreEntity StoreEntity = StoreService.StoreByUUID(StoreId);
-        List<CategoryEntity> StoreCategoryEntityList = categoryService.getCategoriesByStores(StoreId);
-        StoreDetailsResponseAddressState StoreDetailsResponseAddressState = new StoreDetailsResponseAddressState()
-                .id(UUID.fromString(StoreEntity.getAddress().getState().getUuid()))
-                .stateName(StoreEntity.getAddress().getState().getStateName());
-        StoreDetailsResponseAddress StoreDetailsResponseAddress =
-                new StoreDetailsResponseAddress().id(UUID.fromString(StoreEntity.getAddress().getUuid()))
-                        .flatBuildingName(StoreEntity.getAddress().getFlatBuilNo())
-                        .city(StoreEntity.getAddress().getCity()).
-                        locality(StoreEntity.getAddress().getLocality()).pincode(StoreEntity.getAddress().getPincode())
-                        .state(StoreDetailsResponseAddressState);
-        StoreDetailsResponse StoreDetailsResponse =
-                new StoreDetailsResponse().id(UUID.fromString(StoreEntity.getUuid()))
-                        .storeName(StoreEntity.getStoreName()).
-                        customerRating(BigDecimal.valueOf(StoreEntity.getCustomerRating()))
-                        .numberCustomersRated(StoreEntity.getNumberCustomersRated()).
-                        address(StoreDetailsResponseAddress);
-        for (CategoryEntity categoryEntity : StoreCategoryEntityList) {
-            CategoryList categoryList = new CategoryList().id(UUID.fromString(categoryEntity.getUuid()))
-                    .categoryName(categoryEntity.getCategoryName());
-            List<ItemEntity> categoryItemEntities =
-                    itemService.getItemsByCategoryAndStore(StoreId, categoryEntity.getUuid());
-            for (ItemEntity itemEntity : categoryItemEntities) {
-                ItemList itemList =
-                        new ItemList().id(UUID.fromString(itemEntity.getUuid())).itemName(itemEntity.getItemName()).
-                                price(itemEntity.getPrice());
-                categoryList.addItemListItem(itemList);
-            }
-            StoreDetailsResponse.addCategoriesItem(categoryList);
-        }
-        return new ResponseEntity<StoreDetailsResponse>(StoreDetailsResponse, HttpStatus.OK);
+        return catalogResponseCache.get("store/" + StoreId, () -> getStoreDetailsResponse(StoreId), acceptEncoding);
     }
 
     /**
      * A controller method to get Store details by its name from the database.
      *
      * @param StoreName - The name of the Store whose details has to be fetched from the database.
-     * @return - ResponseEntity<StoreListResponse> type object along with Http status OK.
+     * @param pageToken - The next_page_token of the previous page, the first page is returned when it is absent.
+     * @param limit - The maximum number of Stores in the page.
+     * @param acceptEncoding - The Accept-Encoding request header, a gzip-compressed body is returned when it allows gzip.
+     * @return - ResponseEntity<byte[]> type object holding the serialized StoreListResponse along with Http status OK.
      * @throws StoreNotFoundException
+     * @throws InvalidPageTokenException
      */
     @RequestMapping(method = RequestMethod.GET, path = "name/{Store_name}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<StoreListResponse> getStoreByName(@PathVariable("Store_name") String StoreName) throws StoreNotFoundException {
+    public ResponseEntity<byte[]> getStoreByName(@PathVariable("Store_name") String StoreName,
+                                                 @RequestParam(value = "page_token", required = false) String pageToken,
+                                                 @RequestParam(value = "limit", required = false) Integer limit,
+                                                 @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
+            throws StoreNotFoundException, InvalidPageTokenException {
         if (StoreName.isEmpty()) {
             throw new StoreNotFoundException("RNF-003", "Restaurant name field should not be empty");
         }
-        StoreDaoImpl storeDao=new StoreDaoImpl();
-        List<StoreEntity> storeEntityList = storeDao.storeByName(StoreName);
-        return (ResponseEntity<StoreListResponse>) storeEntityList;
+        return catalogResponseCache.get(pageKey("store/name/" + StoreName, pageToken, limit),
+                () -> getStoreListResponse(StoreService.StoresByName(StoreName, pageToken, limit)), acceptEncoding);
     }
 
     /**
      * A controller method to get all Store by a category from the database.
      *
      * @param categoryId - The uuid of the category under which the Store list has to be fetched from the database.
-     * @return - ResponseEntity<StoreListResponse> type object along with Http status OK.
+     * @param pageToken - The next_page_token of the previous page, the first page is returned when it is absent.
+     * @param limit - The maximum number of Stores in the page.
+     * @param acceptEncoding - The Accept-Encoding request header, a gzip-compressed body is returned when it allows gzip.
+     * @return - ResponseEntity<byte[]> type object holding the serialized StoreListResponse along with Http status OK.
      * @throws CategoryNotFoundException
+     * @throws InvalidPageTokenException
      */
     @RequestMapping(method = RequestMethod.GET, path = "/category/{category_id}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<StoreListResponse> getStoreByCategory(@PathVariable("category_id") String categoryId) throws CategoryNotFoundException {
-        if (categoryId.isEmpty()) {
-            throw new CategoryNotFoundException("CNF-001", "Category id field should not be empty");
-        }
-        CategoryDaoImpl categoryDao=new CategoryDaoImpl();
-        CategoryEntity categoryEntity = categoryDao.getCategoryById(categoryId);
-        if (categoryEntity == null) {
-            throw new CategoryNotFoundException("CNF-002", "No category by this id");
-        }
-        List<StoreEntity> storeEntityList = categoryEntity.getStores();
-        return (ResponseEntity<StoreListResponse>) storeEntityList;
+    public ResponseEntity<byte[]> getStoreByCategory(@PathVariable("category_id") String categoryId,
+                                                     @RequestParam(value = "page_token", required = false) String pageToken,
+                                                     @RequestParam(value = "limit", required = false) Integer limit,
+                                                     @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
+            throws CategoryNotFoundException, InvalidPageTokenException {
+        return catalogResponseCache.get(pageKey("store/category/" + categoryId, pageToken, limit),
+                () -> getStoreListResponse(StoreService.StoreByCategory(categoryId, pageToken, limit)), acceptEncoding);
     }
 
     /**
      * A controller method to get all Store from the database.
      *
-     * @return - ResponseEntity<StoreListResponse> type object along with Http status OK.
+     * @param pageToken - The next_page_token of the previous page, the first page is returned when it is absent.
+     * @param limit - The maximum number of Stores in the page.
+     * @param acceptEncoding - The Accept-Encoding request header, a gzip-compressed body is returned when it allows gzip.
+     * @return - ResponseEntity<byte[]> type object holding the serialized StoreListResponse along with Http status OK.
+     * @throws InvalidPageTokenException
      */
     @RequestMapping(method = RequestMethod.GET, path = "", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-    public ResponseEntity<StoreListResponse> getAllStore() {
+    public ResponseEntity<byte[]> getAllStore(@RequestParam(value = "page_token", required = false) String pageToken,
+                                              @RequestParam(value = "limit", required = false) Integer limit,
+                                              @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding)
+            throws InvalidPageTokenException {
+        // The catalog snapshot keeps the stores ordered by customer rating, so no sorting is needed here.
+        return catalogResponseCache.get(pageKey("store", pageToken, limit),
+                () -> getStoreListResponse(StoreService.StoresByRating(pageToken, limit)), acceptEncoding);
+    }
 
-        final List<StoreEntity> stores = StoreService.StoresByRating();
-        Comparator<StoreEntity> compareByCustomerRating = new Comparator<StoreEntity>() {
-            @Override
-            public int compare(StoreEntity r1, StoreEntity r2) {
-                return r2.getCustomerRating().compareTo(r1.getCustomerRating());
-            }
-        };
-        Collections.sort(stores, compareByCustomerRating);
-        StoreListResponse storesResponse = getStoreListResponse(stores);
-        return new ResponseEntity<StoreListResponse>(storesResponse, HttpStatus.OK);
+    /**
+     * A controller method to stream all Store, ordered by rating, without building the whole list in memory.
+     *
+     * @return - ResponseEntity<StreamingResponseBody> writing the StoreListResponse JSON one Store at a time along with Http status OK.
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "", params = "stream=true", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamAllStore() {
+        return streamStoreList(StoreService.StoresByRating());
+    }
 
+    /**
+     * A controller method to stream the Store matching a name without building the whole list in memory.
+     *
+     * @param StoreName - The name of the Store whose details has to be fetched from the database.
+     * @return - ResponseEntity<StreamingResponseBody> writing the StoreListResponse JSON one Store at a time along with Http status OK.
+     * @throws StoreNotFoundException
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "name/{Store_name}", params = "stream=true", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamStoreByName(@PathVariable("Store_name") String StoreName)
+            throws StoreNotFoundException {
+        if (StoreName.isEmpty()) {
+            throw new StoreNotFoundException("RNF-003", "Restaurant name field should not be empty");
+        }
+        return streamStoreList(StoreService.StoresByName(StoreName));
     }
 
+    /**
+     * A controller method to stream all Store of a category without building the whole list in memory.
+     *
+     * @param categoryId - The uuid of the category under which the Store list has to be fetched from the database.
+     * @return - ResponseEntity<StreamingResponseBody> writing the StoreListResponse JSON one Store at a time along with Http status OK.
+     * @throws CategoryNotFoundException
+     */
+    @RequestMapping(method = RequestMethod.GET, path = "/category/{category_id}", params = "stream=true", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+    public ResponseEntity<StreamingResponseBody> streamStoreByCategory(@PathVariable("category_id") String categoryId)
+            throws CategoryNotFoundException {
+        return streamStoreList(StoreService.StoreByCategory(categoryId));
+    }
+
+    private static String pageKey(String listing, String pageToken, Integer limit) {
+        return listing + "?page_token=" + (pageToken == null ? "" : pageToken) + "&limit=" + (limit == null ? "" : limit);
+    }
+
+
+    private StoreDetailsResponse getStoreDetailsResponse(String StoreId) throws StoreNotFoundException {
+        // Items are grouped by category in memory instead of being looked up once per category.
+        StoreEntity StoreEntity = StoreService.StoreDetailsByUUID(StoreId);
+        List<ItemEntity> StoreItemEntityList = itemService.getItemsByStore(StoreId);
+        Map<String, List<ItemList>> itemListsByCategory = new HashMap<String, List<ItemList>>();
+        for (ItemEntity itemEntity : StoreItemEntityList) {
+            ItemList itemList =
+                    new ItemList().id(UUID.fromString(itemEntity.getUuid())).itemName(itemEntity.getItemName()).
+                            price(itemEntity.getPrice());
+            for (CategoryEntity itemCategoryEntity : itemEntity.getCategories()) {
+                List<ItemList> categoryItemLists = itemListsByCategory.get(itemCategoryEntity.getUuid());
+                if (categoryItemLists == null) {
+                    categoryItemLists = new ArrayList<ItemList>();
+                    itemListsByCategory.put(itemCategoryEntity.getUuid(), categoryItemLists);
+                }
+                categoryItemLists.add(itemList);
+            }
+        }
+        StoreDetailsResponseAddressState StoreDetailsResponseAddressState = new StoreDetailsResponseAddressState()
+                .id(UUID.fromString(StoreEntity.getAddress().getState().getUuid()))
+                .stateName(StoreEntity.getAddress().getState().getStateName());
+        StoreDetailsResponseAddress StoreDetailsResponseAddress =
+                new StoreDetailsResponseAddress().id(UUID.fromString(StoreEntity.getAddress().getUuid()))
+                        .flatBuildingName(StoreEntity.getAddress().getFlatBuilNo())
+                        .city(StoreEntity.getAddress().getCity()).
+                        locality(StoreEntity.getAddress().getLocality()).pincode(StoreEntity.getAddress().getPincode())
+                        .state(StoreDetailsResponseAddressState);
+        StoreDetailsResponse StoreDetailsResponse =
+                new StoreDetailsResponse().id(UUID.fromString(StoreEntity.getUuid()))
+                        .storeName(StoreEntity.getStoreName()).
+                        customerRating(BigDecimal.valueOf(StoreEntity.getCustomerRating()))
+                        .numberCustomersRated(StoreEntity.getNumberCustomersRated()).
+                        address(StoreDetailsResponseAddress);
+        for (CategoryEntity categoryEntity : StoreEntity.getCategories()) {
+            CategoryList categoryList = new CategoryList().id(UUID.fromString(categoryEntity.getUuid()))
+                    .categoryName(categoryEntity.getCategoryName());
+            List<ItemList> categoryItemLists = itemListsByCategory.get(categoryEntity.getUuid());
+            if (categoryItemLists != null) {
+                categoryList.itemList(categoryItemLists);
+            }
+            StoreDetailsResponse.addCategoriesItem(categoryList);
+        }
+        return StoreDetailsResponse;
+    }
+
+    private StoreListResponse getStoreListResponse(StorePage storePage) {
+        return getStoreListResponse(storePage.getStores()).nextPageToken(storePage.getNextPageToken());
+    }
 
     private StoreListResponse getStoreListResponse(List<StoreEntity> StoreEntityList) {
         StoreListResponse StoreListResponse = new StoreListResponse();
-        for (StoreEntity StoreEntity : StoreEntityList) {
-            List<CategoryEntity> StoreCategoryEntityList = categoryService.getCategoriesByStores(StoreEntity.getUuid());
-            StoreDetailsResponseAddressState StoreDetailsResponseAddressState = new StoreDetailsResponseAddressState()
-                    .id(UUID.fromString(StoreEntity.getAddress().getState().getUuid()))
-                    .stateName(StoreEntity.getAddress().getState().getStateName());
-            StoreDetailsResponseAddress StoreDetailsResponseAddress =
-                    new StoreDetailsResponseAddress().id(UUID.fromString(StoreEntity.getAddress().getUuid()))
-                            .flatBuildingName(StoreEntity.getAddress().getFlatBuilNo())
-                            .city(StoreEntity.getAddress().getCity()).
-                            locality(StoreEntity.getAddress().getLocality())
-                            .pincode(StoreEntity.getAddress().getPincode()).state(StoreDetailsResponseAddressState);
-            String categoryString = "";
-            for (CategoryEntity categoryEntity : StoreCategoryEntityList) {
-                categoryString = categoryString + categoryEntity.getCategoryName() + ", ";
-            }
-            categoryString = categoryString.substring(0, categoryString.length() - 2);
-            StoreList StoreList =
-                    new StoreList().id(UUID.fromString(StoreEntity.getUuid())).storeName(StoreEntity.getStoreName()).
-                            customerRating(BigDecimal.valueOf(StoreEntity.getCustomerRating()))
-                            .numberCustomersRated(StoreEntity.getNumberCustomersRated()).
-                            address(StoreDetailsResponseAddress).categories(categoryString);
-            StoreListResponse.addStoresItem(StoreList);
+        for (StoreSummaryEntity StoreSummaryEntity : StoreService.StoreSummaries(StoreEntityList)) {
+            StoreListResponse.addStoresItem(getStoreList(StoreSummaryEntity));
         }
         return StoreListResponse;
     }
 
+    private ResponseEntity<StreamingResponseBody> streamStoreList(List<StoreEntity> StoreEntityList) {
+        // The summaries are read from the catalog snapshot, so each one is converted only when it is about to be written.
+        return streamingJsonResponse.array("Stores", StoreService.StoreSummaries(StoreEntityList), this::getStoreList,
+                StoreList.class);
+    }
+
+    private StoreList getStoreList(StoreSummaryEntity StoreSummaryEntity) {
+        StoreDetailsResponseAddressState StoreDetailsResponseAddressState = new StoreDetailsResponseAddressState()
+                .id(UUID.fromString(StoreSummaryEntity.getStateUuid()))
+                .stateName(StoreSummaryEntity.getStateName());
+        StoreDetailsResponseAddress StoreDetailsResponseAddress =
+                new StoreDetailsResponseAddress().id(UUID.fromString(StoreSummaryEntity.getAddressUuid()))
+                        .flatBuildingName(StoreSummaryEntity.getFlatBuilNo())
+                        .city(StoreSummaryEntity.getCity()).
+                        locality(StoreSummaryEntity.getLocality())
+                        .pincode(StoreSummaryEntity.getPincode()).state(StoreDetailsResponseAddressState);
+        StoreList StoreList =
+                new StoreList().id(UUID.fromString(StoreSummaryEntity.getStoreUuid())).storeName(StoreSummaryEntity.getStoreName()).
+                        customerRating(BigDecimal.valueOf(StoreSummaryEntity.getCustomerRating()))
+                        .numberCustomersRated(StoreSummaryEntity.getNumberCustomersRated()).
+                        address(StoreDetailsResponseAddress).categories(StoreSummaryEntity.getCategories());
+        return StoreList;
+    }
+
 }
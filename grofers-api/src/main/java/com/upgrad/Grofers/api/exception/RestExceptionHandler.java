@@ -3,12 +3,15 @@ package com.upgrad.Grofers.api.exception;
 
 import com.upgrad.Grofers.api.ErrorResponse;
 import com.upgrad.Grofers.service.exception.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ControllerAdvice;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.context.request.WebRequest;
 
+import java.util.concurrent.RejectedExecutionException;
+
 /**
 // * This class contains all the Exception Handlers for all the exceptions implemented in the project.
 // * This is a global code for exception handlers and all the controllers implemented in the project can use this global code.
@@ -123,6 +126,16 @@ public class RestExceptionHandler {
       );
     }
 
+   /**
+   * @param exc     - InvalidPageTokenException type object containing error code and error message.
+   * @param request - The web request object gives access to all the request parameters.
+     * @return - ResponseEntity<ErrorResponse> type object displaying error code and error message along with HttpStatus BAD_REQUEST. */
+   @ExceptionHandler(InvalidPageTokenException.class)
+   public ResponseEntity<ErrorResponse> invalidPageTokenException(InvalidPageTokenException exc, WebRequest request) {
+       return new ResponseEntity<ErrorResponse>(
+              new ErrorResponse().code(exc.getCode()).message(exc.getErrorMessage()), HttpStatus.BAD_REQUEST);
+   }
+
    /**
    * @param exc     - UpdateCustomerException type object containing error code and error message.
    * @param request - The web request object gives access to all the request parameters.
@@ -133,4 +146,28 @@ public class RestExceptionHandler {
               new ErrorResponse().code(exc.getCode()).message(exc.getErrorMessage()), HttpStatus.BAD_REQUEST);
    }
 
+   /**
+   * @param exc     - LoginThrottledException type object containing error code, error message and the seconds to wait.
+   * @param request - The web request object gives access to all the request parameters.
+     * @return - ResponseEntity<ErrorResponse> type object displaying error code and error message along with HttpStatus TOO_MANY_REQUESTS. */
+   @ExceptionHandler(LoginThrottledException.class)
+   public ResponseEntity<ErrorResponse> loginThrottledException(LoginThrottledException exc, WebRequest request) {
+       HttpHeaders headers = new HttpHeaders();
+       headers.add(HttpHeaders.RETRY_AFTER, String.valueOf(exc.getRetryAfterSeconds()));
+       return new ResponseEntity<ErrorResponse>(
+              new ErrorResponse().code(exc.getCode()).message(exc.getErrorMessage()), headers, HttpStatus.TOO_MANY_REQUESTS);
+   }
+
+   /**
+   * @param exc     - RejectedExecutionException thrown when the password hashing, session journal or customer write queue is full.
+   * @param request - The web request object gives access to all the request parameters.
+     * @return - ResponseEntity<ErrorResponse> type object displaying error code and error message along with HttpStatus SERVICE_UNAVAILABLE. */
+   @ExceptionHandler(RejectedExecutionException.class)
+   public ResponseEntity<ErrorResponse> rejectedExecutionException(RejectedExecutionException exc, WebRequest request) {
+       HttpHeaders headers = new HttpHeaders();
+       headers.add(HttpHeaders.RETRY_AFTER, "1");
+       return new ResponseEntity<ErrorResponse>(
+              new ErrorResponse().code("SRV-001").message("Server is busy, please try again"), headers, HttpStatus.SERVICE_UNAVAILABLE);
+   }
+
 }
@@ -0,0 +1,50 @@
+package com.upgrad.Grofers.api.stream;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.util.function.Function;
+
+/**
+ * StreamingJsonResponse writes a list response as a single JSON object holding one array field, converting and
+ * serializing the array elements one at a time straight to the servlet output stream.
+ * Only one element model is alive at any time, so the heap used by a response does not grow with the number of elements.
+ */
+@Component
+public class StreamingJsonResponse {
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * @param fieldName - The name of the array field, as in the non-streamed response model.
+     * @param source    - The elements to be written, in response order.
+     * @param converter - Converts an element to its response model.
+     * @param type      - The type of the response model of an element.
+     * @return - ResponseEntity<StreamingResponseBody> writing the JSON object along with Http status OK.
+     */
+    public <S, T> ResponseEntity<StreamingResponseBody> array(final String fieldName, final Iterable<S> source,
+                                                              final Function<? super S, T> converter, final Class<T> type) {
+        // Flushing after every element would turn each one into a separate write on the connection.
+        final ObjectWriter elementWriter = objectMapper.writerFor(type).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.writeStartObject();
+                generator.writeArrayFieldStart(fieldName);
+                for (S element : source) {
+                    elementWriter.writeValue(generator, converter.apply(element));
+                }
+                generator.writeEndArray();
+                generator.writeEndObject();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON_UTF8).body(body);
+    }
+}
@@ -0,0 +1,87 @@
+package com.upgrad.Grofers.api.cache;
+
+import com.upgrad.Grofers.service.business.CatalogSnapshot;
+import com.upgrad.Grofers.service.business.CatalogSnapshotService;
+import com.upgrad.Grofers.service.dao.CategoryRow;
+import com.upgrad.Grofers.service.dao.ItemRow;
+import com.upgrad.Grofers.service.dao.StoreRow;
+import com.upgrad.Grofers.service.entity.StateEntity;
+import com.upgrad.Grofers.service.entity.StoreSummaryEntity;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.Collections;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CatalogETagInterceptorTest {
+
+    private CatalogSnapshotService catalogSnapshotService;
+
+    private CatalogETagInterceptor catalogETagInterceptor;
+
+    @Before
+    public void setUp() {
+        catalogSnapshotService = mock(CatalogSnapshotService.class);
+        catalogETagInterceptor = new CatalogETagInterceptor();
+        ReflectionTestUtils.setField(catalogETagInterceptor, "catalogSnapshotService", catalogSnapshotService);
+    }
+
+    @Test
+    public void tagHoldsTheCatalogDigest() {
+        CatalogSnapshot snapshot = snapshot("Dairy");
+        when(catalogSnapshotService.snapshot()).thenReturn(snapshot);
+        assertEquals("W/\"catalog-" + snapshot.fingerprint() + "\"", get(null).getHeader(HttpHeaders.ETAG));
+    }
+
+    @Test
+    public void currentTagIsAnsweredWithNotModified() throws Exception {
+        when(catalogSnapshotService.snapshot()).thenReturn(snapshot("Dairy"));
+        String eTag = get(null).getHeader(HttpHeaders.ETAG);
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertFalse(catalogETagInterceptor.preHandle(request(eTag), response, null));
+        assertEquals(304, response.getStatus());
+    }
+
+    @Test
+    public void changedCatalogIsServedAgain() throws Exception {
+        when(catalogSnapshotService.snapshot()).thenReturn(snapshot("Dairy"));
+        String eTag = get(null).getHeader(HttpHeaders.ETAG);
+        when(catalogSnapshotService.snapshot()).thenReturn(snapshot("Bakery"));
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(catalogETagInterceptor.preHandle(request(eTag), response, null));
+        assertNotEquals(eTag, response.getHeader(HttpHeaders.ETAG));
+    }
+
+    private MockHttpServletResponse get(final String ifNoneMatch) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        catalogETagInterceptor.preHandle(request(ifNoneMatch), response, null);
+        return response;
+    }
+
+    private static MockHttpServletRequest request(final String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/category");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request;
+    }
+
+    private static CatalogSnapshot snapshot(final String categoryName) {
+        return CatalogSnapshot.build(1, null, Collections.<StateEntity>emptyList(), Collections.<StoreRow>emptyList(),
+                Collections.singletonList(new CategoryRow(1, "category-1", categoryName)),
+                Collections.<ItemRow>emptyList(), Collections.<Object[]>emptyList(),
+                Collections.<Object[]>emptyList(), Collections.<StoreSummaryEntity>emptyList());
+    }
+}
@@ -0,0 +1,29 @@
+package com.upgrad.Grofers.api.cache;
+
+import org.junit.Test;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class CatalogResponseCacheTest {
+
+    @Test
+    public void gzipIsSentWhenAccepted() {
+        assertTrue(CatalogResponseCache.acceptsGzip("gzip"));
+        assertTrue(CatalogResponseCache.acceptsGzip("deflate, gzip;q=0.5"));
+        assertTrue(CatalogResponseCache.acceptsGzip("GZIP;Q=1"));
+        assertTrue(CatalogResponseCache.acceptsGzip("br, x-gzip"));
+        assertTrue(CatalogResponseCache.acceptsGzip("deflate, *"));
+    }
+
+    @Test
+    public void gzipIsNotSentWhenRefusedOrNotListed() {
+        assertFalse(CatalogResponseCache.acceptsGzip(null));
+        assertFalse(CatalogResponseCache.acceptsGzip("identity"));
+        assertFalse(CatalogResponseCache.acceptsGzip("gzip;q=0"));
+        assertFalse(CatalogResponseCache.acceptsGzip("gzip; q=0.000, deflate"));
+        assertFalse(CatalogResponseCache.acceptsGzip("*;q=0"));
+        assertFalse(CatalogResponseCache.acceptsGzip("*, gzip;q=0"));
+        assertFalse(CatalogResponseCache.acceptsGzip("gzip;q=abc"));
+    }
+}
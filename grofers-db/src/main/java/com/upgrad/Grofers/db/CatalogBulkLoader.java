@@ -0,0 +1,275 @@
+package com.upgrad.Grofers.db;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CatalogBulkLoader loads supplier catalog files into the catalog tables in bulk. Every file is streamed into a
+ * temporary staging table through COPY, then the staged rows are upserted into category, item, address, stores,
+ * stores_item, category_item and stores_category by one set-based statement per table, all in a single transaction.
+ * <p>
+ * Rows are matched to the catalog by uuid: existing rows are updated, new ones are inserted with ids reserved in
+ * blocks from the table's sequence. Links are only ever added, except for an item listed under another store, which
+ * is moved to that store since an item belongs to one store. Rows referring to a uuid that is neither staged nor in
+ * the catalog, like a store in an unknown state, are skipped. The store_summary triggers are switched off during the
+ * load and the summaries are rebuilt once at the end instead of once per changed row.
+ * <p>
+ * Run with: mvn -Pbulk-load process-classes -Dbulk.dir=&lt;directory holding the files&gt; in grofers-db; the files
+ * are described in {@link StagingTable}. The time taken and rows per second of every step are printed.
+ */
+public class CatalogBulkLoader {
+
+    private static final int COPY_BUFFER_SIZE = 1 << 16;
+
+    private static final String[][] SUMMARY_TRIGGERS = {
+            {"stores", "store_summary_stores_trg"},
+            {"stores_category", "store_summary_stores_category_trg"},
+            {"category", "store_summary_category_trg"},
+            {"address", "store_summary_address_trg"}
+    };
+
+    private static final String CATEGORY_SOURCE = "SELECT DISTINCT ON (uuid) uuid, category_name FROM staging_category "
+            + "ORDER BY uuid, line DESC";
+
+    private static final String ITEM_SOURCE = "SELECT DISTINCT ON (uuid) uuid, item_name, price FROM staging_item "
+            + "ORDER BY uuid, line DESC";
+
+    private static final String ADDRESS_SOURCE = "SELECT DISTINCT ON (s.address_uuid) s.address_uuid AS uuid, "
+            + "s.flat_buil_number, s.locality, s.city, s.pincode, st.id AS state_id "
+            + "FROM staging_stores s JOIN state st ON st.uuid = s.state_uuid ORDER BY s.address_uuid, s.line DESC";
+
+    private static final String STORES_SOURCE = "SELECT DISTINCT ON (s.uuid) s.uuid, s.store_name, s.customer_rating, "
+            + "coalesce(s.number_of_customers_rated, 0) AS number_of_customers_rated, a.id AS address_id "
+            + "FROM staging_stores s JOIN state st ON st.uuid = s.state_uuid JOIN address a ON a.uuid = s.address_uuid "
+            + "ORDER BY s.uuid, s.line DESC";
+
+    private static final String STORES_ITEM_SOURCE = "SELECT DISTINCT ON (i.id) st.id AS store_id, i.id AS item_id "
+            + "FROM staging_stores_item s JOIN stores st ON st.uuid = s.store_uuid JOIN item i ON i.uuid = s.item_uuid "
+            + "ORDER BY i.id, s.line DESC";
+
+    private static final String CATEGORY_ITEM_SOURCE = "SELECT DISTINCT c.id AS category_id, i.id AS item_id "
+            + "FROM staging_category_item s JOIN category c ON c.uuid = s.category_uuid JOIN item i ON i.uuid = s.item_uuid";
+
+    private static final String STORES_CATEGORY_SOURCE = "SELECT DISTINCT st.id AS store_id, c.id AS category_id "
+            + "FROM staging_stores_category s JOIN stores st ON st.uuid = s.store_uuid "
+            + "JOIN category c ON c.uuid = s.category_uuid";
+
+    private final Connection connection;
+
+    private final CopyManager copyManager;
+
+    private final PrintStream report;
+
+    public CatalogBulkLoader(final Connection connection, final PrintStream report) throws SQLException {
+        this.connection = connection;
+        this.copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+        this.report = report;
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            System.err.println("Usage: CatalogBulkLoader <directory holding the catalog files>");
+            System.exit(2);
+        }
+        final String url = System.getProperty("grofers.db.url", "jdbc:postgresql://localhost:5432/grofersdb");
+        final String username = System.getProperty("grofers.db.username", "postgres");
+        final String password = System.getProperty("grofers.db.password", "");
+        try (Connection connection = DriverManager.getConnection(url, username, password)) {
+            new CatalogBulkLoader(connection, System.out).load(Paths.get(args[0]));
+        }
+    }
+
+    /**
+     * This method loads the catalog files found in the directory; a table without a file is left as it is.
+     * Nothing is changed unless the whole load succeeds.
+     *
+     * @param directory - the directory holding the catalog files.
+     * @return the number of rows staged from the files.
+     */
+    public long load(final Path directory) throws SQLException, IOException {
+        final long startedAt = System.nanoTime();
+        final boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            long staged = 0;
+            for (StagingTable table : StagingTable.values()) {
+                staged += stage(table, directory);
+            }
+            final long upserted = upsert();
+            connection.commit();
+
+            final long elapsed = System.nanoTime() - startedAt;
+            report.println(String.format(Locale.ROOT, "total     %,d rows staged, %,d rows upserted in %.1f s (%,.0f staged rows/s)",
+                    staged, upserted, seconds(elapsed), perSecond(staged, elapsed)));
+            return staged;
+        } catch (SQLException | IOException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    /**
+     * Copies the file of the table, if there is one, into its staging table. The staging table is created either way,
+     * so the upserts can read it.
+     */
+    private long stage(final StagingTable table, final Path directory) throws SQLException, IOException {
+        execute(table.createSql());
+        final Path csv = directory.resolve(table.tableName() + ".csv");
+        final Path ndjson = directory.resolve(table.tableName() + ".ndjson");
+
+        final long startedAt = System.nanoTime();
+        final long rows;
+        if (Files.isRegularFile(csv)) {
+            try (InputStream in = Files.newInputStream(csv)) {
+                rows = copyManager.copyIn(table.copySql(true), in, COPY_BUFFER_SIZE);
+            }
+        } else if (Files.isRegularFile(ndjson)) {
+            try (BufferedReader lines = Files.newBufferedReader(ndjson, StandardCharsets.UTF_8);
+                 Reader in = new NdjsonCsvReader(lines, table.columns())) {
+                rows = copyManager.copyIn(table.copySql(false), in, COPY_BUFFER_SIZE);
+            }
+        } else {
+            report.println(String.format(Locale.ROOT, "staged    %-16s no file", table.tableName()));
+            return 0;
+        }
+        // Temporary tables are never analyzed by autovacuum, and the upserts join them to the catalog tables.
+        execute("ANALYZE " + table.stagingTableName());
+
+        final long elapsed = System.nanoTime() - startedAt;
+        report.println(String.format(Locale.ROOT, "staged    %-16s %,12d rows in %7.1f s (%,.0f rows/s)",
+                table.tableName(), rows, seconds(elapsed), perSecond(rows, elapsed)));
+        return rows;
+    }
+
+    /**
+     * Upserts the staged rows into the catalog tables, parents before the rows referring to them.
+     */
+    private long upsert() throws SQLException {
+        for (String[] tableAndTrigger : SUMMARY_TRIGGERS) {
+            execute("ALTER TABLE " + tableAndTrigger[0] + " DISABLE TRIGGER " + tableAndTrigger[1]);
+        }
+
+        long upserted = 0;
+        upserted += step("category", "update", updateByUuid("category", CATEGORY_SOURCE, "category_name"));
+        upserted += step("category", "insert", insertByUuid("category", CATEGORY_SOURCE, "category_name"));
+        upserted += step("item", "update", updateByUuid("item", ITEM_SOURCE, "item_name", "price"));
+        upserted += step("item", "insert", insertByUuid("item", ITEM_SOURCE, "item_name", "price"));
+        upserted += step("address", "update", updateByUuid("address", ADDRESS_SOURCE,
+                "flat_buil_number", "locality", "city", "pincode", "state_id"));
+        upserted += step("address", "insert", insertByUuid("address", ADDRESS_SOURCE,
+                "flat_buil_number", "locality", "city", "pincode", "state_id"));
+        upserted += step("stores", "update", updateByUuid("stores", STORES_SOURCE,
+                "store_name", "customer_rating", "number_of_customers_rated", "address_id"));
+        upserted += step("stores", "insert", insertByUuid("stores", STORES_SOURCE,
+                "store_name", "customer_rating", "number_of_customers_rated", "address_id"));
+        upserted += step("stores_item", "move", "UPDATE stores_item t SET store_id = l.store_id FROM ("
+                + STORES_ITEM_SOURCE + ") l WHERE t.item_id = l.item_id AND t.store_id <> l.store_id");
+        upserted += step("stores_item", "insert", insertLinks("stores_item", STORES_ITEM_SOURCE, "store_id", "item_id"));
+        upserted += step("category_item", "insert",
+                insertLinks("category_item", CATEGORY_ITEM_SOURCE, "category_id", "item_id"));
+        upserted += step("stores_category", "insert",
+                insertLinks("stores_category", STORES_CATEGORY_SOURCE, "store_id", "category_id"));
+
+        for (String[] tableAndTrigger : SUMMARY_TRIGGERS) {
+            execute("ALTER TABLE " + tableAndTrigger[0] + " ENABLE TRIGGER " + tableAndTrigger[1]);
+        }
+        step("store_summary", "refresh", "SELECT store_summary_refresh_all()");
+        return upserted;
+    }
+
+    private long step(final String table, final String action, final String sql) throws SQLException {
+        final long startedAt = System.nanoTime();
+        final long rows;
+        try (Statement statement = connection.createStatement()) {
+            // A SELECT, like the summary refresh, has no update count.
+            rows = statement.execute(sql) ? 0 : Math.max(statement.getUpdateCount(), 0);
+        }
+        final long elapsed = System.nanoTime() - startedAt;
+        report.println(String.format(Locale.ROOT, "%-9s %-16s %,12d rows in %7.1f s (%,.0f rows/s)",
+                action, table, rows, seconds(elapsed), perSecond(rows, elapsed)));
+        return rows;
+    }
+
+    private void execute(final String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    /**
+     * Updates the rows of the table whose uuid is in the source and whose columns differ from it.
+     */
+    private static String updateByUuid(final String table, final String source, final String... columns) {
+        final StringBuilder sql = new StringBuilder("UPDATE ").append(table).append(" t SET ");
+        for (int i = 0; i < columns.length; i++) {
+            sql.append(i > 0 ? ", " : "").append(columns[i]).append(" = s.").append(columns[i]);
+        }
+        return sql.append(" FROM (").append(source).append(") s WHERE t.uuid = s.uuid AND (")
+                .append(prefixed("t.", columns)).append(") IS DISTINCT FROM (")
+                .append(prefixed("s.", columns)).append(")").toString();
+    }
+
+    /**
+     * Inserts the rows of the source whose uuid is not in the table yet.
+     */
+    private static String insertByUuid(final String table, final String source, final String... columns) {
+        return "WITH new_rows AS (SELECT s.*, row_number() OVER (ORDER BY s.uuid) AS ordinal FROM (" + source + ") s "
+                + "WHERE NOT EXISTS (SELECT 1 FROM " + table + " t WHERE t.uuid = s.uuid)), "
+                + reservedIds(table)
+                + "INSERT INTO " + table + " (id, uuid, " + String.join(", ", columns) + ") "
+                + "SELECT ids.id, n.uuid, " + prefixed("n.", columns) + " FROM new_rows n JOIN ids ON ids.ordinal = n.ordinal";
+    }
+
+    /**
+     * Inserts the links of the source that are not in the join table yet.
+     */
+    private static String insertLinks(final String table, final String source, final String leftColumn,
+                                      final String rightColumn) {
+        return "WITH new_rows AS (SELECT l." + leftColumn + ", l." + rightColumn + ", row_number() OVER (ORDER BY l."
+                + leftColumn + ", l." + rightColumn + ") AS ordinal FROM (" + source + ") l "
+                + "WHERE NOT EXISTS (SELECT 1 FROM " + table + " t WHERE t." + leftColumn + " = l." + leftColumn
+                + " AND t." + rightColumn + " = l." + rightColumn + ")), "
+                + reservedIds(table)
+                + "INSERT INTO " + table + " (id, " + leftColumn + ", " + rightColumn + ") "
+                + "SELECT ids.id, n." + leftColumn + ", n." + rightColumn
+                + " FROM new_rows n JOIN ids ON ids.ordinal = n.ordinal";
+    }
+
+    private static String reservedIds(final String table) {
+        return "ids AS (SELECT * FROM reserve_ids('" + table + "_id_seq', (SELECT count(*) FROM new_rows))) ";
+    }
+
+    private static String prefixed(final String prefix, final String... columns) {
+        final StringBuilder list = new StringBuilder();
+        for (int i = 0; i < columns.length; i++) {
+            list.append(i > 0 ? ", " : "").append(prefix).append(columns[i]);
+        }
+        return list.toString();
+    }
+
+    private static double seconds(final long nanos) {
+        return nanos / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static double perSecond(final long rows, final long nanos) {
+        return nanos == 0 ? 0 : rows / seconds(nanos);
+    }
+}
@@ -0,0 +1,93 @@
+package com.upgrad.Grofers.db;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+
+/**
+ * NdjsonCsvReader reads a newline-delimited JSON file as the CSV rows COPY expects, one object at a time, so files of
+ * any size are streamed to the database without being held in memory.
+ * Each object becomes one row holding the given fields in order. A missing or null field becomes NULL; every other
+ * value is quoted, so an empty string stays an empty string. Blank lines are skipped.
+ */
+class NdjsonCsvReader extends Reader {
+
+    private static final ObjectReader JSON_READER = new ObjectMapper().reader();
+
+    private final BufferedReader lines;
+
+    private final String[] fields;
+
+    private final StringBuilder row = new StringBuilder();
+
+    private int position;
+
+    private long lineNumber;
+
+    NdjsonCsvReader(BufferedReader lines, String[] fields) {
+        this.lines = lines;
+        this.fields = fields.clone();
+    }
+
+    @Override
+    public int read(char[] buffer, int offset, int length) throws IOException {
+        if (length == 0) {
+            return 0;
+        }
+        while (position == row.length()) {
+            if (!nextRow()) {
+                return -1;
+            }
+        }
+        final int count = Math.min(length, row.length() - position);
+        row.getChars(position, position + count, buffer, offset);
+        position += count;
+        return count;
+    }
+
+    @Override
+    public void close() throws IOException {
+        lines.close();
+    }
+
+    private boolean nextRow() throws IOException {
+        String line;
+        do {
+            line = lines.readLine();
+            if (line == null) {
+                return false;
+            }
+            lineNumber++;
+        } while (line.trim().isEmpty());
+
+        final JsonNode object;
+        try {
+            object = JSON_READER.readTree(line);
+        } catch (JsonProcessingException e) {
+            throw new IOException("Line " + lineNumber + " is not valid JSON: " + e.getOriginalMessage(), e);
+        }
+        if (object == null || !object.isObject()) {
+            throw new IOException("Line " + lineNumber + " does not hold a JSON object");
+        }
+
+        row.setLength(0);
+        position = 0;
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                row.append(',');
+            }
+            final JsonNode value = object.get(fields[i]);
+            if (value != null && !value.isNull()) {
+                final String text = value.isValueNode() ? value.asText() : value.toString();
+                row.append('"').append(text.replace("\"", "\"\"")).append('"');
+            }
+        }
+        row.append('\n');
+        return true;
+    }
+}
@@ -0,0 +1,70 @@
+package com.upgrad.Grofers.db;
+
+/**
+ * StagingTable lists the catalog files the bulk loader reads and the staging table each of them is copied into.
+ * A file is named after the table it feeds, with a .csv or .ndjson extension. CSV files start with a header line and
+ * hold the columns in the order given here; NDJSON files hold one object per line with the columns as its fields.
+ * Rows refer to each other by uuid, never by id, since the ids are only assigned when the rows are upserted.
+ */
+enum StagingTable {
+
+    CATEGORY("category", "uuid VARCHAR(200) NOT NULL", "category_name VARCHAR(255)"),
+
+    ITEM("item", "uuid VARCHAR(200) NOT NULL", "item_name VARCHAR(30) NOT NULL", "price INTEGER NOT NULL"),
+
+    STORES("stores", "uuid VARCHAR(200) NOT NULL", "store_name VARCHAR(50) NOT NULL", "customer_rating DECIMAL NOT NULL",
+            "number_of_customers_rated INTEGER", "address_uuid VARCHAR(200) NOT NULL", "flat_buil_number VARCHAR(255)",
+            "locality VARCHAR(255)", "city VARCHAR(30)", "pincode VARCHAR(30)", "state_uuid VARCHAR(200) NOT NULL"),
+
+    CATEGORY_ITEM("category_item", "category_uuid VARCHAR(200) NOT NULL", "item_uuid VARCHAR(200) NOT NULL"),
+
+    STORES_ITEM("stores_item", "store_uuid VARCHAR(200) NOT NULL", "item_uuid VARCHAR(200) NOT NULL"),
+
+    STORES_CATEGORY("stores_category", "store_uuid VARCHAR(200) NOT NULL", "category_uuid VARCHAR(200) NOT NULL");
+
+    private final String tableName;
+
+    private final String[] columnDefinitions;
+
+    private final String[] columns;
+
+    StagingTable(String tableName, String... columnDefinitions) {
+        this.tableName = tableName;
+        this.columnDefinitions = columnDefinitions;
+        this.columns = new String[columnDefinitions.length];
+        for (int i = 0; i < columnDefinitions.length; i++) {
+            columns[i] = columnDefinitions[i].substring(0, columnDefinitions[i].indexOf(' '));
+        }
+    }
+
+    /**
+     * @return the catalog table the staged rows are upserted into, which is also the base name of the file.
+     */
+    String tableName() {
+        return tableName;
+    }
+
+    String stagingTableName() {
+        return "staging_" + tableName;
+    }
+
+    /**
+     * @return the columns of the file, in the order COPY reads them.
+     */
+    String[] columns() {
+        return columns.clone();
+    }
+
+    /**
+     * The line column numbers the rows in file order, so that of two rows for the same uuid the later one wins.
+     */
+    String createSql() {
+        return "CREATE TEMPORARY TABLE " + stagingTableName() + " (line BIGSERIAL, "
+                + String.join(", ", columnDefinitions) + ") ON COMMIT DROP";
+    }
+
+    String copySql(boolean header) {
+        return "COPY " + stagingTableName() + " (" + String.join(", ", columns) + ") FROM STDIN WITH (FORMAT csv, HEADER "
+                + header + ")";
+    }
+}
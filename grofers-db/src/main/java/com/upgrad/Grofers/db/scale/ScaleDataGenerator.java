@@ -0,0 +1,323 @@
+package com.upgrad.Grofers.db.scale;
+
+import com.upgrad.Grofers.db.CatalogBulkLoader;
+import com.upgrad.Grofers.service.business.PasswordCryptographyProvider;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyManager;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ScaleDataGenerator fills a migrated database with a large synthetic data set for the scale suite: stores with their
+ * address, categories, items and the links between them, customers and their sessions, sized by {@link ScaleSettings}.
+ * <p>
+ * Everything is written as CSV files first; the catalog is loaded by the {@link CatalogBulkLoader}, customers and
+ * sessions are copied in the same way by the generator itself. The same seed and sizes always generate the same rows,
+ * except for the session times, which are relative to the time of the run so that the sessions stay within the
+ * partitions a partitioned customer_auth table holds. Generating again adds nothing already there, so the generator
+ * can also grow an existing data set.
+ * <p>
+ * Run with: mvn -Pscale-data process-classes -Dgrofers.scale.stores=... in grofers-db, on a database set up with
+ * -Psetup, since stores are spread over the states of the seed data. Every generated customer has the password
+ * {@link ScaleSettings#CUSTOMER_PASSWORD}.
+ */
+public class ScaleDataGenerator {
+
+    private static final String[] CITIES = {"Bengaluru", "Mumbai", "Delhi", "Chennai", "Hyderabad", "Pune", "Kolkata"};
+
+    private static final char[] HEX_DIGITS = "0123456789ABCDEF".toCharArray();
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss", Locale.ROOT);
+
+    private final Connection connection;
+
+    private final ScaleSettings settings;
+
+    private final PrintStream report;
+
+    public ScaleDataGenerator(final Connection connection, final ScaleSettings settings, final PrintStream report) {
+        this.connection = connection;
+        this.settings = settings;
+        this.report = report;
+    }
+
+    public static void main(String[] args) throws Exception {
+        final Path directory = Paths.get(args.length > 0 ? args[0] : "target/scale");
+        final String url = System.getProperty("grofers.db.url", "jdbc:postgresql://localhost:5432/grofersdb");
+        final String username = System.getProperty("grofers.db.username", "postgres");
+        final String password = System.getProperty("grofers.db.password", "");
+        try (Connection connection = DriverManager.getConnection(url, username, password)) {
+            new ScaleDataGenerator(connection, ScaleSettings.fromSystemProperties(), System.out).generate(directory);
+        }
+    }
+
+    /**
+     * This method generates the data set and loads it into the database.
+     *
+     * @param directory - the directory the generated files are written to.
+     */
+    public void generate(final Path directory) throws SQLException, IOException, GeneralSecurityException {
+        final long startedAt = System.nanoTime();
+        Files.createDirectories(directory);
+        writeCatalog(directory, stateUuids());
+        writeCustomers(directory);
+        new CatalogBulkLoader(connection, report).load(directory);
+        loadCustomers(directory);
+        report.println(String.format(Locale.ROOT, "generated %,d stores, %,d categories, %,d items, %,d customers and %,d sessions in %.1f s",
+                settings.getStores(), settings.getCategories(), (long) settings.getStores() * settings.getItemsPerStore(),
+                settings.getCustomers(), (long) settings.getCustomers() * settings.getSessionsPerCustomer(),
+                (System.nanoTime() - startedAt) / (double) TimeUnit.SECONDS.toNanos(1)));
+    }
+
+    private List<String> stateUuids() throws SQLException {
+        final List<String> states = new ArrayList<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT uuid FROM state ORDER BY id")) {
+            while (resultSet.next()) {
+                states.add(resultSet.getString(1));
+            }
+        }
+        if (states.isEmpty()) {
+            throw new IllegalStateException("The database has no states, set it up with mvn -Psetup first");
+        }
+        return states;
+    }
+
+    private void writeCatalog(final Path directory, final List<String> states) throws IOException {
+        final SplittableRandom random = new SplittableRandom(settings.getSeed());
+
+        try (CsvFile categories = new CsvFile(directory.resolve("category.csv"), "uuid", "category_name")) {
+            for (int category = 0; category < settings.getCategories(); category++) {
+                categories.row(settings.categoryUuid(category), settings.categoryName(category));
+            }
+        }
+
+        try (CsvFile stores = new CsvFile(directory.resolve("stores.csv"), "uuid", "store_name", "customer_rating",
+                "number_of_customers_rated", "address_uuid", "flat_buil_number", "locality", "city", "pincode", "state_uuid");
+             CsvFile storesCategories = new CsvFile(directory.resolve("stores_category.csv"), "store_uuid", "category_uuid");
+             CsvFile items = new CsvFile(directory.resolve("item.csv"), "uuid", "item_name", "price");
+             CsvFile storesItems = new CsvFile(directory.resolve("stores_item.csv"), "store_uuid", "item_uuid");
+             CsvFile categoriesItems = new CsvFile(directory.resolve("category_item.csv"), "category_uuid", "item_uuid")) {
+            final int[] categoryOrder = new int[settings.getCategories()];
+            for (int store = 0; store < settings.getStores(); store++) {
+                final String storeUuid = settings.storeUuid(store);
+                stores.row(storeUuid, settings.storeName(store),
+                        String.format(Locale.ROOT, "%.1f", 1 + random.nextInt(41) / 10.0),
+                        Integer.toString(random.nextInt(5000)), settings.addressUuid(store),
+                        (1 + random.nextInt(500)) + ", Block " + (char) ('A' + random.nextInt(8)),
+                        "Sector " + (1 + random.nextInt(120)), CITIES[random.nextInt(CITIES.length)],
+                        Integer.toString(100000 + random.nextInt(900000)), states.get(random.nextInt(states.size())));
+
+                // The first categories of a partial shuffle are the store's categories, all distinct.
+                for (int i = 0; i < categoryOrder.length; i++) {
+                    categoryOrder[i] = i;
+                }
+                for (int i = 0; i < settings.getCategoriesPerStore(); i++) {
+                    final int j = i + random.nextInt(categoryOrder.length - i);
+                    final int category = categoryOrder[j];
+                    categoryOrder[j] = categoryOrder[i];
+                    categoryOrder[i] = category;
+                    storesCategories.row(storeUuid, settings.categoryUuid(category));
+                }
+
+                for (int item = 0; item < settings.getItemsPerStore(); item++) {
+                    final String itemUuid = settings.itemUuid(store, item);
+                    items.row(itemUuid, "Item " + store + "-" + item, Integer.toString(10 + random.nextInt(1991)));
+                    storesItems.row(storeUuid, itemUuid);
+                    if (settings.getCategoriesPerItem() > 0) {
+                        // Consecutive categories of the store's categories, so they are distinct.
+                        final int first = random.nextInt(settings.getCategoriesPerStore());
+                        for (int i = 0; i < settings.getCategoriesPerItem(); i++) {
+                            final int category = categoryOrder[(first + i) % settings.getCategoriesPerStore()];
+                            categoriesItems.row(settings.categoryUuid(category), itemUuid);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    private void writeCustomers(final Path directory) throws IOException, GeneralSecurityException {
+        final SplittableRandom random = new SplittableRandom(settings.getSeed() ^ 0x5DEECE66DL);
+        final byte[] saltBytes = new byte[32];
+        for (int i = 0; i < saltBytes.length; i++) {
+            saltBytes[i] = (byte) random.nextInt(256);
+        }
+        // All the generated customers share the password and the salt, so the password is hashed only once, by the
+        // application's own PasswordCryptographyProvider so that the customers can log in.
+        final String salt = Base64.getEncoder().encodeToString(saltBytes);
+        final String hashedPassword = PasswordCryptographyProvider.encrypt(ScaleSettings.CUSTOMER_PASSWORD, salt);
+        final MessageDigest sha256 = MessageDigest.getInstance("SHA-256");
+        final LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+
+        try (CsvFile customers = new CsvFile(directory.resolve("customer.csv"), "uuid", "firstname", "lastname", "email",
+                "contact_number", "password", "salt");
+             CsvFile sessions = new CsvFile(directory.resolve("customer_auth.csv"), "uuid", "customer_uuid",
+                     "access_token", "access_token_digest", "login_at", "logout_at", "expires_at")) {
+            for (int customer = 0; customer < settings.getCustomers(); customer++) {
+                final String customerUuid = settings.customerUuid(customer);
+                customers.row(customerUuid, "Scale", "Customer " + customer, "scale." + customer + "@example.com",
+                        settings.contactNumber(customer), hashedPassword, salt);
+                for (int session = 0; session < settings.getSessionsPerCustomer(); session++) {
+                    final String accessToken = "scale." + settings.sessionUuid(customer, session);
+                    final LocalDateTime loginAt = now.minusMinutes(random.nextInt(12 * 60));
+                    // A third of the sessions is logged out; the ones logged in more than 8 hours ago have expired.
+                    final LocalDateTime logoutAt = random.nextInt(3) == 0 ? loginAt.plusMinutes(random.nextInt(8 * 60)) : null;
+                    sessions.row(settings.sessionUuid(customer, session), customerUuid, accessToken,
+                            "\\x" + hex(sha256.digest(accessToken.getBytes(StandardCharsets.UTF_8))),
+                            TIMESTAMP.format(loginAt), logoutAt == null ? null : TIMESTAMP.format(logoutAt),
+                            TIMESTAMP.format(loginAt.plusHours(8)));
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies the customers and their sessions into staging tables and inserts the ones not in the database yet,
+     * with ids reserved from the table sequences like the bulk loader does. Customers already there get the generated
+     * password hash.
+     */
+    private void loadCustomers(final Path directory) throws SQLException, IOException {
+        final long startedAt = System.nanoTime();
+        final boolean autoCommit = connection.getAutoCommit();
+        connection.setAutoCommit(false);
+        try {
+            final CopyManager copyManager = connection.unwrap(PGConnection.class).getCopyAPI();
+            execute("CREATE TEMPORARY TABLE staging_customer (line BIGSERIAL, uuid VARCHAR(200), firstname VARCHAR(30), "
+                    + "lastname VARCHAR(30), email VARCHAR(50), contact_number VARCHAR(30), password VARCHAR(255), "
+                    + "salt VARCHAR(255)) ON COMMIT DROP");
+            execute("CREATE TEMPORARY TABLE staging_customer_auth (line BIGSERIAL, uuid VARCHAR(200), "
+                    + "customer_uuid VARCHAR(200), access_token VARCHAR(500), access_token_digest BYTEA, "
+                    + "login_at TIMESTAMP, logout_at TIMESTAMP, expires_at TIMESTAMP) ON COMMIT DROP");
+            try (InputStream in = Files.newInputStream(directory.resolve("customer.csv"))) {
+                copyManager.copyIn("COPY staging_customer (uuid, firstname, lastname, email, contact_number, password, "
+                        + "salt) FROM STDIN WITH (FORMAT csv, HEADER true)", in);
+            }
+            try (InputStream in = Files.newInputStream(directory.resolve("customer_auth.csv"))) {
+                copyManager.copyIn("COPY staging_customer_auth (uuid, customer_uuid, access_token, access_token_digest, "
+                        + "login_at, logout_at, expires_at) FROM STDIN WITH (FORMAT csv, HEADER true)", in);
+            }
+            execute("ANALYZE staging_customer");
+            execute("ANALYZE staging_customer_auth");
+
+            // Customers generated before with another password hash get the current one, so they can log in again.
+            final int rehashedCustomers = executeUpdate("UPDATE customer c SET password = s.password, salt = s.salt "
+                    + "FROM staging_customer s WHERE c.uuid = s.uuid "
+                    + "AND (c.password IS DISTINCT FROM s.password OR c.salt IS DISTINCT FROM s.salt)");
+            final int insertedCustomers = executeUpdate("WITH new_rows AS (SELECT s.*, row_number() OVER (ORDER BY s.line) AS ordinal "
+                    + "FROM staging_customer s WHERE NOT EXISTS (SELECT 1 FROM customer c "
+                    + "WHERE c.uuid = s.uuid OR c.contact_number = s.contact_number)), "
+                    + "ids AS (SELECT * FROM reserve_ids('customer_id_seq', (SELECT count(*) FROM new_rows))) "
+                    + "INSERT INTO customer (id, uuid, firstname, lastname, email, contact_number, password, salt) "
+                    + "SELECT ids.id, n.uuid, n.firstname, n.lastname, n.email, n.contact_number, n.password, n.salt "
+                    + "FROM new_rows n JOIN ids ON ids.ordinal = n.ordinal");
+            final int insertedSessions = executeUpdate("WITH new_rows AS (SELECT s.*, c.id AS customer_id, "
+                    + "row_number() OVER (ORDER BY s.line) AS ordinal FROM staging_customer_auth s "
+                    + "JOIN customer c ON c.uuid = s.customer_uuid "
+                    + "WHERE NOT EXISTS (SELECT 1 FROM customer_auth a WHERE a.uuid = s.uuid)), "
+                    + "ids AS (SELECT * FROM reserve_ids('customer_auth_id_seq', (SELECT count(*) FROM new_rows))) "
+                    + "INSERT INTO customer_auth (id, uuid, customer_id, access_token, access_token_digest, login_at, "
+                    + "logout_at, expires_at) SELECT ids.id, n.uuid, n.customer_id, n.access_token, n.access_token_digest, "
+                    + "n.login_at, n.logout_at, n.expires_at FROM new_rows n JOIN ids ON ids.ordinal = n.ordinal");
+            connection.commit();
+
+            final double seconds = (System.nanoTime() - startedAt) / (double) TimeUnit.SECONDS.toNanos(1);
+            report.println(String.format(Locale.ROOT, "inserted  %,d customers and %,d sessions in %.1f s (%,.0f rows/s)",
+                    insertedCustomers, insertedSessions, seconds, (insertedCustomers + insertedSessions) / seconds));
+            if (rehashedCustomers > 0) {
+                report.println(String.format(Locale.ROOT, "rehashed  the password of %,d existing customers", rehashedCustomers));
+            }
+        } catch (SQLException | IOException | RuntimeException e) {
+            connection.rollback();
+            throw e;
+        } finally {
+            connection.setAutoCommit(autoCommit);
+        }
+    }
+
+    private static String hex(final byte[] bytes) {
+        final char[] hex = new char[bytes.length * 2];
+        for (int i = 0; i < bytes.length; i++) {
+            hex[i * 2] = HEX_DIGITS[(bytes[i] >> 4) & 0x0F];
+            hex[i * 2 + 1] = HEX_DIGITS[bytes[i] & 0x0F];
+        }
+        return new String(hex);
+    }
+
+    private void execute(final String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+
+    private int executeUpdate(final String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            return statement.executeUpdate(sql);
+        }
+    }
+
+    /**
+     * CsvFile writes a catalog file in the CSV format the bulk loader reads: a header line, then one quoted row per line.
+     */
+    private static final class CsvFile implements AutoCloseable {
+
+        private final BufferedWriter writer;
+
+        private final StringBuilder line = new StringBuilder();
+
+        CsvFile(final Path path, final String... header) throws IOException {
+            writer = Files.newBufferedWriter(path, StandardCharsets.UTF_8);
+            writer.write(String.join(",", header));
+            writer.write('\n');
+        }
+
+        void row(final String... values) throws IOException {
+            line.setLength(0);
+            append(line, values);
+            writer.append(line);
+        }
+
+        /**
+         * Appends one CSV row; a null value is written unquoted, which COPY reads as NULL.
+         */
+        private static void append(final StringBuilder csv, final String... values) {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    csv.append(',');
+                }
+                if (values[i] != null) {
+                    csv.append('"').append(values[i].replace("\"", "\"\"")).append('"');
+                }
+            }
+            csv.append('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.close();
+        }
+    }
+}
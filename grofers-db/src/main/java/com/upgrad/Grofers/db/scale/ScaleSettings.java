@@ -0,0 +1,153 @@
+package com.upgrad.Grofers.db.scale;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * ScaleSettings holds the size of the generated data set and derives every generated identifier from the seed.
+ * The generator and the scale suite read the same settings, so the suite finds the stores, categories and customers
+ * the generator created without a manifest being passed between them. The settings are read from system properties
+ * prefixed with grofers.scale.; the same seed and sizes always produce the same data.
+ */
+public class ScaleSettings {
+
+    /**
+     * The password of every generated customer.
+     */
+    public static final String CUSTOMER_PASSWORD = "Scale@2024";
+
+    private static final String[] ADJECTIVES = {"Fresh", "Daily", "Green", "Corner", "Happy", "Prime", "Urban", "Royal"};
+
+    private static final String[] NOUNS = {"Mart", "Basket", "Bazaar", "Grocers", "Pantry", "Harvest", "Market", "Depot"};
+
+    private final long seed;
+
+    private final int stores;
+
+    private final int categories;
+
+    private final int categoriesPerStore;
+
+    private final int itemsPerStore;
+
+    private final int categoriesPerItem;
+
+    private final int customers;
+
+    private final int sessionsPerCustomer;
+
+    public ScaleSettings(long seed, int stores, int categories, int categoriesPerStore, int itemsPerStore,
+                         int categoriesPerItem, int customers, int sessionsPerCustomer) {
+        if (stores < 1 || categories < 1 || customers < 1) {
+            throw new IllegalArgumentException("At least one store, category and customer are needed");
+        }
+        this.seed = seed;
+        this.stores = stores;
+        this.categories = categories;
+        this.categoriesPerStore = Math.min(categoriesPerStore, categories);
+        this.itemsPerStore = itemsPerStore;
+        this.categoriesPerItem = Math.min(categoriesPerItem, this.categoriesPerStore);
+        this.customers = customers;
+        this.sessionsPerCustomer = sessionsPerCustomer;
+    }
+
+    public static ScaleSettings fromSystemProperties() {
+        return new ScaleSettings(
+                Long.getLong("grofers.scale.seed", 42L),
+                Integer.getInteger("grofers.scale.stores", 1000),
+                Integer.getInteger("grofers.scale.categories", 50),
+                Integer.getInteger("grofers.scale.categories-per-store", 5),
+                Integer.getInteger("grofers.scale.items-per-store", 100),
+                Integer.getInteger("grofers.scale.categories-per-item", 2),
+                Integer.getInteger("grofers.scale.customers", 10000),
+                Integer.getInteger("grofers.scale.sessions-per-customer", 3));
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getStores() {
+        return stores;
+    }
+
+    public int getCategories() {
+        return categories;
+    }
+
+    public int getCategoriesPerStore() {
+        return categoriesPerStore;
+    }
+
+    public int getItemsPerStore() {
+        return itemsPerStore;
+    }
+
+    public int getCategoriesPerItem() {
+        return categoriesPerItem;
+    }
+
+    public int getCustomers() {
+        return customers;
+    }
+
+    public int getSessionsPerCustomer() {
+        return sessionsPerCustomer;
+    }
+
+    public String storeUuid(int store) {
+        return uuid("store", store);
+    }
+
+    public String addressUuid(int store) {
+        return uuid("address", store);
+    }
+
+    /**
+     * Store names are made of a small vocabulary, so searching for one of its words matches many stores.
+     */
+    public String storeName(int store) {
+        return ADJECTIVES[store % ADJECTIVES.length] + " " + NOUNS[(store / ADJECTIVES.length) % NOUNS.length]
+                + " " + store;
+    }
+
+    /**
+     * @return a word of the store names, for searching stores by name.
+     */
+    public String storeNameWord(int index) {
+        return NOUNS[index % NOUNS.length];
+    }
+
+    public String categoryUuid(int category) {
+        return uuid("category", category);
+    }
+
+    public String categoryName(int category) {
+        return String.format(Locale.ROOT, "Category %04d", category);
+    }
+
+    public String itemUuid(int store, int item) {
+        return uuid("item", (long) store * itemsPerStore + item);
+    }
+
+    public String customerUuid(int customer) {
+        return uuid("customer", customer);
+    }
+
+    /**
+     * Generated contact numbers start with 5 so they stay clear of the ones in the seed data.
+     */
+    public String contactNumber(int customer) {
+        return String.format(Locale.ROOT, "5%09d", customer);
+    }
+
+    public String sessionUuid(int customer, int session) {
+        return uuid("session", (long) customer * sessionsPerCustomer + session);
+    }
+
+    private String uuid(String kind, long index) {
+        return UUID.nameUUIDFromBytes(("grofers-scale:" + seed + ":" + kind + ":" + index)
+                .getBytes(StandardCharsets.UTF_8)).toString();
+    }
+}
@@ -0,0 +1,307 @@
+package com.upgrad.Grofers.db.scale;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ScaleSuite runs every public endpoint of a running grofers-api against the data set of the {@link ScaleDataGenerator}
+ * and reports, per endpoint, the latency percentiles and the number of SQL statements a request costs.
+ * <p>
+ * The endpoints are run one after the other and their requests one at a time, so the statements counted while an
+ * endpoint runs are the ones its requests made, apart from the scheduled work of the application (like the catalog
+ * reload) that happens to fall in. Statements are counted with the pg_stat_statements extension of the database,
+ * which has to be in shared_preload_libraries and created in the database; without it the suite only measures
+ * latency. Requests are spread over the generated stores, categories and customers.
+ * <p>
+ * Run with: mvn -Pscale-suite process-classes -Dgrofers.scale.requests=... in grofers-db, with the grofers-api started
+ * on the generated database and the same grofers.scale settings as the generator. The login throttle limits logins per
+ * client address, so for measuring the login endpoint grofers.login-throttle.address.capacity should be raised above
+ * the number of requests.
+ */
+public class ScaleSuite {
+
+    private static final String STATEMENT_COUNT = "SELECT coalesce(sum(calls), 0) FROM pg_stat_statements "
+            + "WHERE dbid = (SELECT oid FROM pg_database WHERE datname = current_database())";
+
+    private final ScaleSettings settings;
+
+    private final String baseUrl;
+
+    private final int requests;
+
+    private final int warmupRequests;
+
+    private final Connection statistics;
+
+    private final PrintStream report;
+
+    private final List<String> loggedInTokens = new ArrayList<>();
+
+    private String accessToken;
+
+    private String addressUuid;
+
+    /**
+     * @param statistics - a connection to the database of the application for counting statements, or null.
+     */
+    public ScaleSuite(final ScaleSettings settings, final String baseUrl, final int requests, final int warmupRequests,
+                      final Connection statistics, final PrintStream report) {
+        this.settings = settings;
+        this.baseUrl = baseUrl;
+        this.requests = Math.max(1, requests);
+        this.warmupRequests = Math.max(0, warmupRequests);
+        this.statistics = statistics;
+        this.report = report;
+    }
+
+    public static void main(String[] args) throws Exception {
+        final String url = System.getProperty("grofers.db.url", "jdbc:postgresql://localhost:5432/grofersdb");
+        final String username = System.getProperty("grofers.db.username", "postgres");
+        final String password = System.getProperty("grofers.db.password", "");
+        Connection statistics = null;
+        try {
+            statistics = DriverManager.getConnection(url, username, password);
+            try (Statement statement = statistics.createStatement()) {
+                statement.executeQuery(STATEMENT_COUNT).close();
+            }
+        } catch (SQLException e) {
+            System.out.println("Statement counts not available: " + e.getMessage());
+            if (statistics != null) {
+                statistics.close();
+                statistics = null;
+            }
+        }
+        try {
+            new ScaleSuite(ScaleSettings.fromSystemProperties(),
+                    System.getProperty("grofers.scale.base-url", "http://localhost:8080/api"),
+                    Integer.getInteger("grofers.scale.requests", 200),
+                    Integer.getInteger("grofers.scale.warmup", 20),
+                    statistics, System.out).run();
+        } finally {
+            if (statistics != null) {
+                statistics.close();
+            }
+        }
+    }
+
+    /**
+     * This method runs all the endpoints and prints a line of results for each of them.
+     */
+    public void run() throws IOException, SQLException {
+        report.println(String.format(Locale.ROOT, "%-28s %8s %8s %9s %9s %9s %9s %11s",
+                "endpoint", "requests", "errors", "p50 ms", "p90 ms", "p99 ms", "max ms", "statements"));
+
+        accessToken = accessToken(send("POST", "/customer/customer/login", login(0), null));
+        if (accessToken == null) {
+            throw new IllegalStateException("Customer " + settings.contactNumber(0) + " cannot log in, run the "
+                    + "generator with the same settings first");
+        }
+
+        measure("GET /store", i -> get("/store?limit=20"));
+        measure("GET /store?stream", i -> get("/store?stream=true"));
+        measure("GET /store/name", i -> get("/store/name/" + encode(settings.storeNameWord(i))));
+        measure("GET /store/name?stream", i -> get("/store/name/" + encode(settings.storeNameWord(i)) + "?stream=true"));
+        measure("GET /store/category", i -> get("/store/category/" + settings.categoryUuid(i % settings.getCategories())));
+        measure("GET /store/category?stream",
+                i -> get("/store/category/" + settings.categoryUuid(i % settings.getCategories()) + "?stream=true"));
+        measure("GET /store/{id}", i -> get("/store/" + settings.storeUuid(i % settings.getStores())));
+        measure("GET /category", i -> get("/category"));
+        measure("GET /category?stream", i -> get("/category?stream=true"));
+        measure("GET /category/{id}", i -> get("/category/" + settings.categoryUuid(i % settings.getCategories())));
+
+        final long run = System.currentTimeMillis() / 1000 % 100000;
+        measure("POST /customer/signup", i -> send("POST", "/customer/customer/signup", null,
+                "{\"first_name\":\"Scale\",\"last_name\":\"Signup\",\"email_address\":\"signup." + run + "." + i
+                        + "@example.com\",\"contact_number\":\"" + String.format(Locale.ROOT, "4%05d%06d", run, i)
+                        + "\",\"password\":\"" + ScaleSettings.CUSTOMER_PASSWORD + "\"}"));
+        measure("POST /customer/login", i -> {
+            // Customer 0 holds the session of the suite; the others log in in turn.
+            final int customer = settings.getCustomers() > 1 ? 1 + i % (settings.getCustomers() - 1) : 0;
+            final Response response = send("POST", "/customer/customer/login", login(customer), null);
+            final String token = accessToken(response);
+            if (token != null) {
+                loggedInTokens.add(token);
+            }
+            return response;
+        });
+        measure("PUT /customer/password", i -> send("PUT", "/customer/customer/password", bearer(),
+                "{\"old_password\":\"" + ScaleSettings.CUSTOMER_PASSWORD + "\",\"new_password\":\""
+                        + ScaleSettings.CUSTOMER_PASSWORD + "\"}"));
+        measure("POST /address", i -> {
+            final Response response = send("POST", "/address/address", bearer(),
+                    "{\"flat_building_name\":\"" + (i + 1) + ", Scale Residency\",\"locality\":\"Sector 1\","
+                            + "\"city\":\"Pune\",\"pincode\":\"411001\"}");
+            if (addressUuid == null && response.status / 100 == 2) {
+                addressUuid = field(response.body, "id");
+            }
+            return response;
+        });
+        measure("GET /address/customer", i -> send("GET", "/address/address/customer", bearer(), null));
+        measure("GET /address/{id}", i -> send("GET", "/address/address/"
+                + (addressUuid != null ? addressUuid : settings.addressUuid(i % settings.getStores())), bearer(), null));
+        measure("POST /customer/logout", i -> send("POST", "/customer/customer/logout",
+                "Bearer " + (i < loggedInTokens.size() ? loggedInTokens.get(i) : accessToken), null));
+    }
+
+    /**
+     * Runs the warm-up requests of an endpoint, then the measured ones, and prints their results.
+     */
+    private void measure(final String endpoint, final Request request) throws IOException, SQLException {
+        for (int i = 0; i < warmupRequests; i++) {
+            request.send(requests + i);
+        }
+        final long[] latencies = new long[requests];
+        int errors = 0;
+        final long statementsBefore = statementCount();
+        for (int i = 0; i < requests; i++) {
+            final long startedAt = System.nanoTime();
+            final Response response = request.send(i);
+            latencies[i] = System.nanoTime() - startedAt;
+            if (response.status / 100 != 2) {
+                errors++;
+            }
+        }
+        final long statementsAfter = statementCount();
+        Arrays.sort(latencies);
+
+        // The first count is itself counted by the second one.
+        final String statements = statementsBefore < 0 ? "n/a"
+                : String.format(Locale.ROOT, "%.2f", (statementsAfter - statementsBefore - 1) / (double) requests);
+        report.println(String.format(Locale.ROOT, "%-28s %8d %8d %9.2f %9.2f %9.2f %9.2f %11s",
+                endpoint, requests, errors, millis(percentile(latencies, 50)), millis(percentile(latencies, 90)),
+                millis(percentile(latencies, 99)), millis(latencies[latencies.length - 1]), statements + "/req"));
+    }
+
+    private long statementCount() throws SQLException {
+        if (statistics == null) {
+            return -1;
+        }
+        try (Statement statement = statistics.createStatement();
+             ResultSet resultSet = statement.executeQuery(STATEMENT_COUNT)) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private Response get(final String path) throws IOException {
+        return send("GET", path, null, null);
+    }
+
+    private String login(final int customer) {
+        return "Basic " + Base64.getEncoder().encodeToString((settings.contactNumber(customer) + ":"
+                + ScaleSettings.CUSTOMER_PASSWORD).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private String bearer() {
+        return "Bearer " + accessToken;
+    }
+
+    /**
+     * Sends a request and reads the whole response, so the connection can be reused by the next request.
+     */
+    private Response send(final String method, final String path, final String authorization, final String json)
+            throws IOException {
+        final HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl + path).openConnection();
+        connection.setRequestMethod(method);
+        connection.setRequestProperty("Accept", "application/json");
+        if (authorization != null) {
+            connection.setRequestProperty("authorization", authorization);
+        }
+        if (json != null) {
+            connection.setDoOutput(true);
+            connection.setRequestProperty("Content-Type", "application/json;charset=UTF-8");
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(json.getBytes(StandardCharsets.UTF_8));
+            }
+        } else if (!"GET".equals(method)) {
+            connection.setDoOutput(true);
+            connection.setFixedLengthStreamingMode(0);
+        }
+        final int status = connection.getResponseCode();
+        final InputStream in = status >= 400 ? connection.getErrorStream() : connection.getInputStream();
+        final StringBuilder body = new StringBuilder();
+        if (in != null) {
+            try (InputStream responseBody = in) {
+                final byte[] buffer = new byte[8192];
+                int read;
+                while ((read = responseBody.read(buffer)) != -1) {
+                    // Only the start of the body is kept, for reading the id of a created address.
+                    if (body.length() < 1024) {
+                        body.append(new String(buffer, 0, read, StandardCharsets.UTF_8));
+                    }
+                }
+            }
+        }
+        return new Response(status, connection.getHeaderField("access-token"), body.toString());
+    }
+
+    private static String accessToken(final Response response) {
+        return response.status / 100 == 2 ? response.accessToken : null;
+    }
+
+    /**
+     * @return the value of a string field of a flat JSON object, or null if it is not there.
+     */
+    private static String field(final String json, final String name) {
+        final String key = "\"" + name + "\":\"";
+        final int start = json.indexOf(key);
+        if (start < 0) {
+            return null;
+        }
+        final int end = json.indexOf('"', start + key.length());
+        return end < 0 ? null : json.substring(start + key.length(), end);
+    }
+
+    private static String encode(final String value) throws IOException {
+        return URLEncoder.encode(value, "UTF-8").replace("+", "%20");
+    }
+
+    /**
+     * @return the nearest-rank percentile of the sorted values.
+     */
+    private static long percentile(final long[] sorted, final int percentile) {
+        final int rank = (int) Math.ceil(percentile / 100.0 * sorted.length);
+        return sorted[Math.max(0, rank - 1)];
+    }
+
+    private static double millis(final long nanos) {
+        return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+    }
+
+    private interface Request {
+
+        Response send(int index) throws IOException;
+    }
+
+    private static final class Response {
+
+        private final int status;
+
+        private final String accessToken;
+
+        private final String body;
+
+        Response(final int status, final String accessToken, final String body) {
+            this.status = status;
+            this.accessToken = accessToken;
+            this.body = body;
+        }
+    }
+}
@@ -0,0 +1,12 @@
+-- Adds the SHA-256 access token digest to CUSTOMER_AUTH and backfills it; the application looks tokens up by it.
+-- Every statement can be run again, for databases where the former customer_auth_token_digest.sql already ran.
+
+CREATE EXTENSION IF NOT EXISTS pgcrypto;
+
+ALTER TABLE CUSTOMER_AUTH ADD COLUMN IF NOT EXISTS access_token_digest BYTEA;
+
+-- digest(text, 'sha256') hashes the UTF-8 bytes of the token on a UTF-8 database, the same as the application does.
+UPDATE CUSTOMER_AUTH SET access_token_digest = digest(access_token, 'sha256') WHERE access_token_digest IS NULL AND access_token IS NOT NULL;
+
+ALTER TABLE CUSTOMER_AUTH DROP CONSTRAINT IF EXISTS CUSTOMER_AUTH_ACCESS_TOKEN_DIGEST_LENGTH;
+ALTER TABLE CUSTOMER_AUTH ADD CONSTRAINT CUSTOMER_AUTH_ACCESS_TOKEN_DIGEST_LENGTH CHECK (octet_length(access_token_digest) = 32);
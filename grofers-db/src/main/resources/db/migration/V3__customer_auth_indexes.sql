@@ -0,0 +1,7 @@
+-- Indexes of CUSTOMER_AUTH: the token lookup by digest, the session reaper (expires_at, logout_at)
+-- and the revoked token poll (logout_at).
+-- Built CONCURRENTLY so logins and token lookups are not locked out; Flyway runs this migration outside a transaction.
+
+CREATE UNIQUE INDEX CONCURRENTLY IF NOT EXISTS CUSTOMER_AUTH_ACCESS_TOKEN_DIGEST_IDX ON CUSTOMER_AUTH(access_token_digest);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS CUSTOMER_AUTH_EXPIRES_AT_IDX ON CUSTOMER_AUTH(expires_at);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS CUSTOMER_AUTH_LOGOUT_AT_IDX ON CUSTOMER_AUTH(logout_at);
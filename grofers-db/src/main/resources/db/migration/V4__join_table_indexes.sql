@@ -0,0 +1,18 @@
+-- The join tables only had their surrogate id indexed, so every join on the browse path scanned them sequentially.
+-- Each link is now covered in both directions by a composite index, which also answers the join on its own
+-- (index-only scan) without visiting the table. The foreign keys of ADDRESS and CUSTOMER_ADDRESS get an index too.
+-- Built CONCURRENTLY so the catalog stays writable; Flyway runs this migration outside a transaction.
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS STORES_ITEM_STORE_ID_ITEM_ID_IDX ON STORES_ITEM(store_id, item_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS STORES_ITEM_ITEM_ID_STORE_ID_IDX ON STORES_ITEM(item_id, store_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS CATEGORY_ITEM_CATEGORY_ID_ITEM_ID_IDX ON CATEGORY_ITEM(category_id, item_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS CATEGORY_ITEM_ITEM_ID_CATEGORY_ID_IDX ON CATEGORY_ITEM(item_id, category_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS STORES_CATEGORY_STORE_ID_CATEGORY_ID_IDX ON STORES_CATEGORY(store_id, category_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS STORES_CATEGORY_CATEGORY_ID_STORE_ID_IDX ON STORES_CATEGORY(category_id, store_id);
+
+CREATE INDEX CONCURRENTLY IF NOT EXISTS ADDRESS_STATE_ID_IDX ON ADDRESS(state_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS CUSTOMER_ADDRESS_CUSTOMER_ID_IDX ON CUSTOMER_ADDRESS(customer_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS CUSTOMER_ADDRESS_ADDRESS_ID_IDX ON CUSTOMER_ADDRESS(address_id);
+CREATE INDEX CONCURRENTLY IF NOT EXISTS STORES_ADDRESS_ID_IDX ON STORES(address_id);
@@ -0,0 +1,15 @@
+-- Makes every id sequence hand out blocks of 50 ids, matching the allocationSize of the entity sequence generators,
+-- so the application assigns ids in memory and can send its inserts as JDBC batches.
+-- Ids already handed out are not reused; rows inserted by SQL with the column default take one id of a block each.
+
+ALTER SEQUENCE customer_id_seq INCREMENT BY 50;
+ALTER SEQUENCE category_id_seq INCREMENT BY 50;
+ALTER SEQUENCE state_id_seq INCREMENT BY 50;
+ALTER SEQUENCE address_id_seq INCREMENT BY 50;
+ALTER SEQUENCE customer_address_id_seq INCREMENT BY 50;
+ALTER SEQUENCE item_id_seq INCREMENT BY 50;
+ALTER SEQUENCE stores_id_seq INCREMENT BY 50;
+ALTER SEQUENCE category_item_id_seq INCREMENT BY 50;
+ALTER SEQUENCE stores_item_id_seq INCREMENT BY 50;
+ALTER SEQUENCE stores_category_id_seq INCREMENT BY 50;
+ALTER SEQUENCE customer_auth_id_seq INCREMENT BY 50;
@@ -0,0 +1,93 @@
+-- STORE_SUMMARY is a read model of the store listings: one row per store holding everything a listing shows,
+-- the flattened address and state and the store's category names already joined, so listings are read with one scan
+-- instead of joining ADDRESS, STATE, STORES_CATEGORY and CATEGORY and concatenating the names for every store.
+-- Triggers on the source tables keep every row in sync within the transaction making the change.
+
+CREATE TABLE STORE_SUMMARY(store_id INTEGER NOT NULL, store_uuid VARCHAR(200) NOT NULL, store_name VARCHAR(50) NOT NULL, customer_rating DECIMAL NOT NULL, number_of_customers_rated INTEGER NOT NULL, address_uuid VARCHAR(200), flat_buil_number VARCHAR(255), locality VARCHAR(255), city VARCHAR(30), pincode VARCHAR(30), state_uuid VARCHAR(200), state_name VARCHAR(30), categories TEXT NOT NULL DEFAULT '', PRIMARY KEY (store_id), FOREIGN KEY (store_id) REFERENCES STORES(id) ON DELETE CASCADE);
+
+-- Listings ordered by rating, the default store listing, read the index in order.
+CREATE INDEX STORE_SUMMARY_CUSTOMER_RATING_IDX ON STORE_SUMMARY(customer_rating DESC, store_id);
+
+-- Category names are ordered by code point (COLLATE "C"), the order the application sorts them in.
+CREATE OR REPLACE FUNCTION store_summary_refresh(refreshed_store_ids INTEGER[]) RETURNS VOID AS $$
+BEGIN
+    INSERT INTO STORE_SUMMARY(store_id, store_uuid, store_name, customer_rating, number_of_customers_rated, address_uuid,
+                              flat_buil_number, locality, city, pincode, state_uuid, state_name, categories)
+    SELECT s.id, s.uuid, s.store_name, s.customer_rating, s.number_of_customers_rated, a.uuid,
+           a.flat_buil_number, a.locality, a.city, a.pincode, st.uuid, st.state_name,
+           coalesce((SELECT string_agg(c.category_name, ', ' ORDER BY c.category_name COLLATE "C", c.id)
+                     FROM STORES_CATEGORY sc JOIN CATEGORY c ON c.id = sc.category_id
+                     WHERE sc.store_id = s.id), '')
+    FROM STORES s
+    LEFT JOIN ADDRESS a ON a.id = s.address_id
+    LEFT JOIN STATE st ON st.id = a.state_id
+    WHERE s.id = ANY (refreshed_store_ids)
+    ON CONFLICT (store_id) DO UPDATE SET
+        store_uuid = EXCLUDED.store_uuid, store_name = EXCLUDED.store_name, customer_rating = EXCLUDED.customer_rating,
+        number_of_customers_rated = EXCLUDED.number_of_customers_rated, address_uuid = EXCLUDED.address_uuid,
+        flat_buil_number = EXCLUDED.flat_buil_number, locality = EXCLUDED.locality, city = EXCLUDED.city,
+        pincode = EXCLUDED.pincode, state_uuid = EXCLUDED.state_uuid, state_name = EXCLUDED.state_name,
+        categories = EXCLUDED.categories;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Rebuilds every row, for bulk loads that change many stores at once.
+CREATE OR REPLACE FUNCTION store_summary_refresh_all() RETURNS VOID AS $$
+BEGIN
+    PERFORM store_summary_refresh(ARRAY(SELECT id FROM STORES));
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION store_summary_on_store_change() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM store_summary_refresh(ARRAY[NEW.id]);
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION store_summary_on_store_category_change() RETURNS TRIGGER AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM store_summary_refresh(ARRAY[OLD.store_id]);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM store_summary_refresh(ARRAY[NEW.store_id]);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION store_summary_on_category_change() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM store_summary_refresh(ARRAY(SELECT store_id FROM STORES_CATEGORY WHERE category_id = NEW.id));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION store_summary_on_address_change() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM store_summary_refresh(ARRAY(SELECT id FROM STORES WHERE address_id = NEW.id));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION store_summary_on_state_change() RETURNS TRIGGER AS $$
+BEGIN
+    PERFORM store_summary_refresh(ARRAY(SELECT s.id FROM STORES s JOIN ADDRESS a ON a.id = s.address_id WHERE a.state_id = NEW.id));
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Deleted stores go with ON DELETE CASCADE; deleted categories cascade to STORES_CATEGORY, whose trigger refreshes the stores.
+CREATE TRIGGER STORE_SUMMARY_STORES_TRG AFTER INSERT OR UPDATE ON STORES
+    FOR EACH ROW EXECUTE PROCEDURE store_summary_on_store_change();
+CREATE TRIGGER STORE_SUMMARY_STORES_CATEGORY_TRG AFTER INSERT OR UPDATE OR DELETE ON STORES_CATEGORY
+    FOR EACH ROW EXECUTE PROCEDURE store_summary_on_store_category_change();
+CREATE TRIGGER STORE_SUMMARY_CATEGORY_TRG AFTER UPDATE OF category_name ON CATEGORY
+    FOR EACH ROW EXECUTE PROCEDURE store_summary_on_category_change();
+CREATE TRIGGER STORE_SUMMARY_ADDRESS_TRG AFTER UPDATE ON ADDRESS
+    FOR EACH ROW EXECUTE PROCEDURE store_summary_on_address_change();
+CREATE TRIGGER STORE_SUMMARY_STATE_TRG AFTER UPDATE ON STATE
+    FOR EACH ROW EXECUTE PROCEDURE store_summary_on_state_change();
+
+SELECT store_summary_refresh_all();
@@ -0,0 +1,14 @@
+-- Reserves ids for rows inserted in bulk by SQL, the same way the entity sequence generators take them: every nextval
+-- reserves the block of increment_by ids ending at the value it returns. Taking a sequence default instead would use
+-- up a whole block for each row, which for bulk loads of millions of rows would exhaust the INTEGER ids.
+-- Returns id_count ids, numbered by ordinal from 1, for joining them to the rows being inserted.
+
+CREATE OR REPLACE FUNCTION reserve_ids(sequence_name REGCLASS, id_count BIGINT) RETURNS TABLE(ordinal BIGINT, id INTEGER) AS $$
+    SELECT row_number() OVER (ORDER BY blocks.last_id, n.i DESC), (blocks.last_id - n.i)::INTEGER
+    FROM (SELECT seqincrement AS block_size FROM pg_sequence WHERE seqrelid = sequence_name) seq
+    CROSS JOIN LATERAL (SELECT nextval(sequence_name) AS last_id
+                        FROM generate_series(1, (id_count + seq.block_size - 1) / seq.block_size)) blocks
+    CROSS JOIN LATERAL generate_series(0, seq.block_size - 1) AS n(i)
+    ORDER BY 1
+    LIMIT id_count;
+$$ LANGUAGE SQL VOLATILE;
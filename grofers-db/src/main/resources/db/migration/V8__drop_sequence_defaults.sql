@@ -0,0 +1,32 @@
+-- Since V5 every id sequence has INCREMENT BY 50, so a row that takes its id from the column default, nextval,
+-- uses up a whole block of 50 ids; only the pooled entity sequence generators and reserve_ids (V7) hand them out
+-- one by one. The seed data is not affected, it runs before V5 and keeps its dense ids.
+-- The id defaults are dropped, so an insert without an id fails instead of silently making the ids sparse: the
+-- application, the bulk loader, the scale data generator and the session journal all supply their ids, and SQL run
+-- by hand takes them from reserve_ids, e.g.
+--   INSERT INTO category (id, uuid, category_name) SELECT id, '...', 'Snacks' FROM reserve_ids('category_id_seq', 1);
+-- The sequences stay owned by their id column.
+
+ALTER TABLE CUSTOMER ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE CATEGORY ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE STATE ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE ADDRESS ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE CUSTOMER_ADDRESS ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE ITEM ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE STORES ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE CATEGORY_ITEM ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE STORES_ITEM ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE STORES_CATEGORY ALTER COLUMN id DROP DEFAULT;
+ALTER TABLE CUSTOMER_AUTH ALTER COLUMN id DROP DEFAULT;
+
+COMMENT ON SEQUENCE customer_id_seq IS 'Increments by 50: take ids with reserve_ids(''customer_id_seq'', n), not nextval';
+COMMENT ON SEQUENCE category_id_seq IS 'Increments by 50: take ids with reserve_ids(''category_id_seq'', n), not nextval';
+COMMENT ON SEQUENCE state_id_seq IS 'Increments by 50: take ids with reserve_ids(''state_id_seq'', n), not nextval';
+COMMENT ON SEQUENCE address_id_seq IS 'Increments by 50: take ids with reserve_ids(''address_id_seq'', n), not nextval';
+COMMENT ON SEQUENCE customer_address_id_seq IS 'Increments by 50: take ids with reserve_ids(''customer_address_id_seq'', n), not nextval';
+COMMENT ON SEQUENCE item_id_seq IS 'Increments by 50: take ids with reserve_ids(''item_id_seq'', n), not nextval';
+COMMENT ON SEQUENCE stores_id_seq IS 'Increments by 50: take ids with reserve_ids(''stores_id_seq'', n), not nextval';
+COMMENT ON SEQUENCE category_item_id_seq IS 'Increments by 50: take ids with reserve_ids(''category_item_id_seq'', n), not nextval';
+COMMENT ON SEQUENCE stores_item_id_seq IS 'Increments by 50: take ids with reserve_ids(''stores_item_id_seq'', n), not nextval';
+COMMENT ON SEQUENCE stores_category_id_seq IS 'Increments by 50: take ids with reserve_ids(''stores_category_id_seq'', n), not nextval';
+COMMENT ON SEQUENCE customer_auth_id_seq IS 'Increments by 50: take ids with reserve_ids(''customer_auth_id_seq'', n), not nextval';
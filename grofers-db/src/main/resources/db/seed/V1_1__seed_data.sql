@@ -1,3 +1,6 @@
+-- Development seed data, applied right after the baseline by mvn -Psetup process-resources only.
+-- It refers to the ids 1, 2, 3, ... the baseline sequences hand out, so it has to run before V5 changes their increment.
+
 INSERT INTO CUSTOMER(uuid,firstname,lastname,email,contact_number,password,salt) VALUES('7d174a25-ba31-45a8-85b4-b06ffc9d5f8f','Upgrad','Grofers','grofer@upgrad.com','1111111111','95070049B59AFCD5A10135A810B10BBA9FC010028AA64C6574DDE85F6DC6008D','asdfrtgyhdfrrfbfg5ef45r34f4t');
 
 INSERT INTO STATE(uuid,state_name) VALUES('aa174a25-ba31-45a8-85b4-b06ffc9d5f8f','Andaman and Nicobar Islands');
@@ -0,0 +1,73 @@
+-- Range-partitions CUSTOMER_AUTH by expires_at into daily partitions, so expired sessions go away by dropping whole
+-- partitions instead of being deleted row by row. Needs PostgreSQL 11 or later.
+-- Run with: mvn -Ppartition-sessions process-resources on a database migrated with -Pmigrate, then set grofers.auth.session-reaper.partitioned=true so the
+-- session reaper keeps creating the upcoming partitions and dropping the expired ones.
+-- Statements end with a line holding a single / since the function body contains semicolons.
+-- A partitioned table cannot enforce uniqueness without the partition key, so the access token digest is unique
+-- together with expires_at and the session uuid is indexed, not unique.
+-- Sessions expiring outside the daily partitions, because partition maintenance fell behind or a session lasts longer
+-- than the days created ahead, land in CUSTOMER_AUTH_DEFAULT instead of failing the login; the maintenance moves them
+-- into their daily partition once it creates it, and the session reaper reports the rows left in it.
+-- Like every id column since V8, id has no default: customer_auth_id_seq increments by 50, so ids are taken with
+-- reserve_ids, as the session journal does, or by the entity sequence generator.
+
+CREATE OR REPLACE FUNCTION customer_auth_maintain_partitions(days_ahead INTEGER DEFAULT 7) RETURNS INTEGER AS $$
+DECLARE
+    day DATE;
+    partition_name TEXT;
+    expired RECORD;
+    dropped INTEGER := 0;
+BEGIN
+    FOR day IN SELECT generate_series(current_date - 1, current_date + days_ahead, INTERVAL '1 day')::DATE LOOP
+        partition_name := 'customer_auth_' || to_char(day, 'YYYYMMDD');
+        CONTINUE WHEN to_regclass(partition_name) IS NOT NULL;
+        -- A partition cannot be created for rows the default partition holds, so they are moved into it first.
+        EXECUTE format('CREATE TABLE %I (LIKE CUSTOMER_AUTH)', partition_name);
+        EXECUTE format('WITH moved AS (DELETE FROM CUSTOMER_AUTH_DEFAULT WHERE expires_at >= %L AND expires_at < %L RETURNING *) '
+                       'INSERT INTO %I SELECT * FROM moved', day, day + 1, partition_name);
+        EXECUTE format('ALTER TABLE CUSTOMER_AUTH ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                       partition_name, day, day + 1);
+    END LOOP;
+    -- A day of slack keeps the partitions the reaper grace period and clock differences may still need.
+    FOR expired IN
+        SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+        WHERE i.inhparent = 'customer_auth'::REGCLASS AND c.relname ~ '^customer_auth_[0-9]{8}$'
+          AND to_date(substring(c.relname FROM 15), 'YYYYMMDD') + 1 < current_date - 1
+    LOOP
+        EXECUTE format('DROP TABLE %I', expired.relname);
+        dropped := dropped + 1;
+    END LOOP;
+    RETURN dropped;
+END;
+$$ LANGUAGE plpgsql
+/
+
+BEGIN
+/
+LOCK TABLE CUSTOMER_AUTH IN ACCESS EXCLUSIVE MODE
+/
+ALTER TABLE CUSTOMER_AUTH RENAME TO CUSTOMER_AUTH_UNPARTITIONED
+/
+CREATE TABLE CUSTOMER_AUTH(id INTEGER NOT NULL, uuid VARCHAR(200) NOT NULL, customer_id INTEGER NOT NULL, access_token VARCHAR(500), access_token_digest BYTEA NOT NULL CHECK (octet_length(access_token_digest) = 32), login_at TIMESTAMP, logout_at TIMESTAMP, expires_at TIMESTAMP NOT NULL, CONSTRAINT CUSTOMER_AUTH_PARTITIONED_PKEY PRIMARY KEY (id, expires_at), FOREIGN KEY (customer_id) REFERENCES CUSTOMER(id) ON DELETE CASCADE) PARTITION BY RANGE (expires_at)
+/
+CREATE UNIQUE INDEX CUSTOMER_AUTH_DIGEST_EXPIRES_AT_IDX ON CUSTOMER_AUTH(access_token_digest, expires_at)
+/
+CREATE INDEX CUSTOMER_AUTH_UUID_IDX ON CUSTOMER_AUTH(uuid)
+/
+CREATE INDEX CUSTOMER_AUTH_PARTITIONED_LOGOUT_AT_IDX ON CUSTOMER_AUTH(logout_at)
+/
+CREATE TABLE CUSTOMER_AUTH_DEFAULT PARTITION OF CUSTOMER_AUTH DEFAULT
+/
+SELECT customer_auth_maintain_partitions()
+/
+-- Sessions expired before the oldest partition are not carried over.
+INSERT INTO CUSTOMER_AUTH(id, uuid, customer_id, access_token, access_token_digest, login_at, logout_at, expires_at)
+SELECT id, uuid, customer_id, access_token, access_token_digest, login_at, logout_at, expires_at
+FROM CUSTOMER_AUTH_UNPARTITIONED WHERE expires_at >= current_date - 1
+/
+ALTER SEQUENCE customer_auth_id_seq OWNED BY CUSTOMER_AUTH.id
+/
+DROP TABLE CUSTOMER_AUTH_UNPARTITIONED
+/
+COMMIT
+/
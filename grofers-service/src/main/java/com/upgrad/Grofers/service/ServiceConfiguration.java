@@ -3,12 +3,18 @@ package com.upgrad.Grofers.service;
 import org.springframework.boot.autoconfigure.domain.EntityScan;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.PropertySource;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 /**
  * Enabling the component scan and entity scan of classes in the below mentioned "com.upgrad.Grofers.service" and "com.upgrad.Grofers.service.entity" packages respectively.
+ * Scheduling is enabled for the periodic background jobs of the service layer, such as the catalog reload.
+ * The JPA batching and second-level cache settings of the service layer come from grofers-service.properties.
  */
 @Configuration
+@EnableScheduling
 @ComponentScan("com.upgrad.Grofers.service")
 @EntityScan("com.upgrad.Grofers.service.entity")
+@PropertySource("classpath:grofers-service.properties")
 public class ServiceConfiguration {
 }
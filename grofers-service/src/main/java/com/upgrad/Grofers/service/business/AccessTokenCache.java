@@ -0,0 +1,130 @@
+package com.upgrad.Grofers.service.business;
+
+import com.upgrad.Grofers.service.entity.CustomerAuthEntity;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.ZonedDateTime;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * AccessTokenCache keeps the outcome of access token lookups in memory: the id of the customer a token belongs to, when
+ * it expires and whether it was logged out. The customer itself is not cached, so every request works on a customer
+ * of its own and sees profile and password changes made through any other token. Tokens that were not found are remembered too, for a shorter time, so
+ * repeated calls with an unknown token do not reach the database either.
+ * The cache is bounded, least recently used tokens are dropped first, and every entry is re-read from the database
+ * after its time to live so changes made by other instances are picked up. A logout made on another instance is
+ * therefore seen here only once the time to live ends, so it is kept as short as the revocation refresh of the
+ * stateless mode: long enough to absorb the bursts of calls a client makes, short enough to bound that window.
+ */
+@Component
+public class AccessTokenCache {
+
+    @Value("${grofers.auth.token-cache.max-entries:10000}")
+    private int maxEntries;
+
+    @Value("${grofers.auth.token-cache.ttl-ms:5000}")
+    private long ttlMillis;
+
+    @Value("${grofers.auth.token-cache.negative-ttl-ms:5000}")
+    private long negativeTtlMillis;
+
+    private final Map<String, CachedAccessToken> entries = new LinkedHashMap<String, CachedAccessToken>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedAccessToken> eldest) {
+            return size() > maxEntries;
+        }
+    };
+
+    /**
+     * @return the cached state of the token, or null when the token has to be looked up in the database.
+     */
+    public synchronized CachedAccessToken get(final String accessToken) {
+        CachedAccessToken cached = entries.get(accessToken);
+        if (cached != null && cached.cachedUntil < System.currentTimeMillis()) {
+            entries.remove(accessToken);
+            return null;
+        }
+        return cached;
+    }
+
+    /**
+     * This method caches the outcome of a database lookup of the token.
+     *
+     * @param accessToken        - The access token that was looked up.
+     * @param customerAuthEntity - The customer auth row found for the token, or null if there is none.
+     * @return the cached state of the token.
+     */
+    public CachedAccessToken put(final String accessToken, final CustomerAuthEntity customerAuthEntity) {
+        final long now = System.currentTimeMillis();
+        final CachedAccessToken cached = customerAuthEntity == null
+                ? new CachedAccessToken(null, null, null, now + negativeTtlMillis)
+                : new CachedAccessToken(customerAuthEntity.getCustomer().getId(), customerAuthEntity.getExpiresAt(),
+                customerAuthEntity.getLogoutAt(), now + ttlMillis);
+        synchronized (this) {
+            entries.put(accessToken, cached);
+        }
+        return cached;
+    }
+
+    /**
+     * This method drops the token from the cache, so its next use is checked against the database.
+     */
+    public synchronized void invalidate(final String accessToken) {
+        entries.remove(accessToken);
+    }
+
+    /**
+     * This method drops all the tokens of the customer from the cache, so their next use is checked against the database.
+     */
+    public synchronized void invalidateCustomer(final Integer customerId) {
+        for (Iterator<CachedAccessToken> iterator = entries.values().iterator(); iterator.hasNext(); ) {
+            if (customerId.equals(iterator.next().customerId)) {
+                iterator.remove();
+            }
+        }
+    }
+
+    /**
+     * The state of an access token as it was found in the database.
+     */
+    public static final class CachedAccessToken {
+
+        private final Integer customerId;
+
+        private final ZonedDateTime expiresAt;
+
+        private final ZonedDateTime logoutAt;
+
+        private final long cachedUntil;
+
+        private CachedAccessToken(Integer customerId, ZonedDateTime expiresAt, ZonedDateTime logoutAt,
+                                  long cachedUntil) {
+            this.customerId = customerId;
+            this.expiresAt = expiresAt;
+            this.logoutAt = logoutAt;
+            this.cachedUntil = cachedUntil;
+        }
+
+        /**
+         * @return false if no customer auth row exists for the token.
+         */
+        public boolean isKnown() {
+            return customerId != null;
+        }
+
+        public boolean isLoggedOut() {
+            return logoutAt != null;
+        }
+
+        public boolean isExpired() {
+            return expiresAt != null && expiresAt.isBefore(ZonedDateTime.now());
+        }
+
+        public Integer getCustomerId() {
+            return customerId;
+        }
+    }
+}
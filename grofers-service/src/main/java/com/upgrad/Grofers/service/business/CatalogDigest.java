@@ -0,0 +1,114 @@
+package com.upgrad.Grofers.service.business;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * CatalogDigest computes the SHA-256 digest of a catalog snapshot's content. Every row is encoded field by field,
+ * with a type tag and the length of strings, so that no two different rows share an encoding; the encoded rows are
+ * sorted before they are digested, since the catalog queries return them in no particular order.
+ */
+final class CatalogDigest {
+
+    private static final int NULL = 0;
+
+    private static final int STRING = 1;
+
+    private static final int INTEGER = 2;
+
+    private static final int DOUBLE = 3;
+
+    private static final int OTHER = 4;
+
+    private final List<byte[]> rows = new ArrayList<>();
+
+    private final ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+
+    private final DataOutputStream out = new DataOutputStream(buffer);
+
+    /**
+     * This method adds a row of the given table.
+     *
+     * @param table  the table the row belongs to.
+     * @param fields the values of the row, in the same order for every row of the table.
+     */
+    void add(final String table, final Object... fields) {
+        buffer.reset();
+        try {
+            writeField(table);
+            out.writeInt(fields.length);
+            for (Object field : fields) {
+                writeField(field);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        rows.add(buffer.toByteArray());
+    }
+
+    /**
+     * @return the lowercase hex SHA-256 digest of all the rows added.
+     */
+    String finish() {
+        rows.sort(CatalogDigest::compareUnsigned);
+        final MessageDigest sha256;
+        try {
+            sha256 = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        final byte[] length = new byte[4];
+        for (byte[] row : rows) {
+            length[0] = (byte) (row.length >>> 24);
+            length[1] = (byte) (row.length >>> 16);
+            length[2] = (byte) (row.length >>> 8);
+            length[3] = (byte) row.length;
+            sha256.update(length);
+            sha256.update(row);
+        }
+        final StringBuilder hex = new StringBuilder();
+        for (byte b : sha256.digest()) {
+            hex.append(Character.forDigit((b >> 4) & 0x0F, 16)).append(Character.forDigit(b & 0x0F, 16));
+        }
+        return hex.toString();
+    }
+
+    private void writeField(final Object field) throws IOException {
+        if (field == null) {
+            out.writeByte(NULL);
+        } else if (field instanceof String) {
+            writeBytes(STRING, ((String) field).getBytes(StandardCharsets.UTF_8));
+        } else if (field instanceof Integer) {
+            out.writeByte(INTEGER);
+            out.writeInt((Integer) field);
+        } else if (field instanceof Double) {
+            out.writeByte(DOUBLE);
+            out.writeLong(Double.doubleToLongBits((Double) field));
+        } else {
+            writeBytes(OTHER, field.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private void writeBytes(final int type, final byte[] bytes) throws IOException {
+        out.writeByte(type);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    private static int compareUnsigned(final byte[] left, final byte[] right) {
+        final int length = Math.min(left.length, right.length);
+        for (int i = 0; i < length; i++) {
+            final int compared = Integer.compare(left[i] & 0xFF, right[i] & 0xFF);
+            if (compared != 0) {
+                return compared;
+            }
+        }
+        return Integer.compare(left.length, right.length);
+    }
+}
@@ -0,0 +1,343 @@
+package com.upgrad.Grofers.service.business;
+
+import com.upgrad.Grofers.service.dao.CategoryRow;
+import com.upgrad.Grofers.service.dao.ItemRow;
+import com.upgrad.Grofers.service.dao.StoreRow;
+import com.upgrad.Grofers.service.entity.AddressEntity;
+import com.upgrad.Grofers.service.entity.CategoryEntity;
+import com.upgrad.Grofers.service.entity.ItemEntity;
+import com.upgrad.Grofers.service.entity.StateEntity;
+import com.upgrad.Grofers.service.entity.StoreEntity;
+import com.upgrad.Grofers.service.entity.StoreSummaryEntity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+
+/**
+ * CatalogSnapshot is an immutable, fully indexed copy of the catalog: states, stores, categories and items.
+ * The entities held by a snapshot are detached copies whose associations are wired from the snapshot itself,
+ * so reading them never goes back to the database. A snapshot is never modified after it is built; a changed
+ * catalog results in a new snapshot with a higher version.
+ */
+public final class CatalogSnapshot {
+
+    static final Comparator<StoreEntity> STORES_BY_RATING = Comparator
+            .comparing(StoreEntity::getCustomerRating, Comparator.reverseOrder())
+            .thenComparing(StoreEntity::getId);
+
+    static final Comparator<StoreEntity> STORES_BY_NAME = Comparator
+            .comparing(StoreEntity::getStoreName)
+            .thenComparing(StoreEntity::getId);
+
+    private static final Comparator<CategoryEntity> CATEGORIES_BY_NAME = Comparator
+            .comparing(CategoryEntity::getCategoryName)
+            .thenComparing(CategoryEntity::getId);
+
+    private static final Comparator<ItemEntity> ITEMS_BY_NAME = Comparator
+            .comparing(ItemEntity::getItemName)
+            .thenComparing(ItemEntity::getId);
+
+    private final long version;
+
+    private final String fingerprint;
+
+    private final Map<String, StoreEntity> storesByUuid;
+
+    private final List<StoreEntity> storesByRating;
+
+    private final List<StoreEntity> storesByName;
+
+    private final StoreNameSearchIndex storeNameSearchIndex;
+
+    private final Map<String, CategoryEntity> categoriesByUuid;
+
+    private final List<CategoryEntity> categoriesByName;
+
+    private final Map<Integer, List<CategoryEntity>> categoriesByStoreId;
+
+    private final Map<Integer, List<StoreEntity>> storesByCategoryId;
+
+    private final ItemBitmapIndex itemBitmapIndex;
+
+    private final Map<Integer, StoreSummaryEntity> storeSummariesByStoreId;
+
+    private CatalogSnapshot(long version, String fingerprint, Map<String, StoreEntity> storesByUuid,
+                            List<StoreEntity> storesByRating, List<StoreEntity> storesByName,
+                            Map<String, CategoryEntity> categoriesByUuid, List<CategoryEntity> categoriesByName,
+                            Map<Integer, List<CategoryEntity>> categoriesByStoreId,
+                            Map<Integer, List<StoreEntity>> storesByCategoryId,
+                            ItemBitmapIndex itemBitmapIndex, Map<Integer, StoreSummaryEntity> storeSummariesByStoreId) {
+        this.version = version;
+        this.fingerprint = fingerprint;
+        this.storesByUuid = storesByUuid;
+        this.storesByRating = storesByRating;
+        this.storesByName = storesByName;
+        this.storeNameSearchIndex = StoreNameSearchIndex.build(storesByRating);
+        this.categoriesByUuid = categoriesByUuid;
+        this.categoriesByName = categoriesByName;
+        this.categoriesByStoreId = categoriesByStoreId;
+        this.storesByCategoryId = storesByCategoryId;
+        this.itemBitmapIndex = itemBitmapIndex;
+        this.storeSummariesByStoreId = storeSummariesByStoreId;
+    }
+
+    /**
+     * This method copies the loaded catalog rows into a new snapshot and builds all its indexes.
+     * Only the basic attributes of the given states are read, so they may be detached once this method returns.
+     *
+     * @param version          the version to be given to the new snapshot.
+     * @param previous         the snapshot being replaced, or null on the first load; unchanged indexes are shared with it.
+     * @param states           all the states.
+     * @param stores           all the store rows, carrying their address.
+     * @param categories       all the category rows.
+     * @param items            all the item rows, carrying the id of their store.
+     * @param storeCategoryIds pairs of [store id, category id].
+     * @param categoryItemIds  pairs of [category id, item id].
+     * @param storeSummaries   the store_summary rows of the stores; they are immutable and kept as they are.
+     * @return the new snapshot.
+     */
+    public static CatalogSnapshot build(long version, CatalogSnapshot previous, List<StateEntity> states, List<StoreRow> stores,
+                                        List<CategoryRow> categories, List<ItemRow> items,
+                                        List<Object[]> storeCategoryIds, List<Object[]> categoryItemIds,
+                                        List<StoreSummaryEntity> storeSummaries) {
+        CatalogDigest digest = new CatalogDigest();
+
+        Map<Integer, StateEntity> stateCopies = new HashMap<>();
+        for (StateEntity state : states) {
+            StateEntity copy = new StateEntity(state.getUuid(), state.getStateName());
+            copy.setId(state.getId());
+            stateCopies.put(copy.getId(), copy);
+            digest.add("state", state.getId(), state.getUuid(), state.getStateName());
+        }
+
+        Map<Integer, StoreEntity> storeCopies = new HashMap<>();
+        for (StoreRow store : stores) {
+            StoreEntity copy = new StoreEntity();
+            copy.setId(store.getId());
+            copy.setUuid(store.getUuid());
+            copy.setStoreName(store.getStoreName());
+            copy.setCustomerRating(store.getCustomerRating());
+            copy.setNumberCustomersRated(store.getNumberCustomersRated());
+            StateEntity state = stateCopies.get(store.getStateId());
+            AddressEntity addressCopy = new AddressEntity(store.getAddressUuid(), store.getFlatBuilNo(),
+                    store.getLocality(), store.getCity(), store.getPincode(), state);
+            addressCopy.setId(store.getAddressId());
+            copy.setAddress(addressCopy);
+            digest.add("address", store.getAddressId(), store.getAddressUuid(), store.getFlatBuilNo(),
+                    store.getLocality(), store.getCity(), store.getPincode(), store.getStateId());
+            storeCopies.put(copy.getId(), copy);
+            digest.add("stores", store.getId(), store.getUuid(), store.getStoreName(), store.getCustomerRating(),
+                    store.getNumberCustomersRated(), store.getAddressId());
+        }
+
+        Map<Integer, CategoryEntity> categoryCopies = new HashMap<>();
+        for (CategoryRow category : categories) {
+            CategoryEntity copy = new CategoryEntity();
+            copy.setId(category.getId());
+            copy.setUuid(category.getUuid());
+            copy.setCategoryName(category.getCategoryName());
+            categoryCopies.put(copy.getId(), copy);
+            digest.add("category", category.getId(), category.getUuid(), category.getCategoryName());
+        }
+
+        Map<Integer, ItemEntity> itemCopies = new HashMap<>();
+        Map<Integer, List<ItemEntity>> itemsByStoreId = new HashMap<>();
+        List<int[]> storeItemIds = new ArrayList<>();
+        for (ItemRow item : items) {
+            ItemEntity copy = new ItemEntity();
+            copy.setId(item.getId());
+            copy.setUuid(item.getUuid());
+            copy.setItemName(item.getItemName());
+            copy.setPrice(item.getPrice());
+            StoreEntity store = item.getStoreId() == null ? null : storeCopies.get(item.getStoreId());
+            copy.setStore(store);
+            if (store != null) {
+                itemsByStoreId.computeIfAbsent(store.getId(), id -> new ArrayList<>()).add(copy);
+                storeItemIds.add(new int[]{store.getId(), copy.getId()});
+            }
+            itemCopies.put(copy.getId(), copy);
+            digest.add("item", item.getId(), item.getUuid(), item.getItemName(), item.getPrice(),
+                    store == null ? null : store.getId());
+        }
+
+        Map<Integer, List<CategoryEntity>> categoriesByStoreId = new HashMap<>();
+        Map<Integer, List<StoreEntity>> storesByCategoryId = new HashMap<>();
+        for (Object[] pair : storeCategoryIds) {
+            StoreEntity store = storeCopies.get(pair[0]);
+            CategoryEntity category = categoryCopies.get(pair[1]);
+            if (store != null && category != null) {
+                categoriesByStoreId.computeIfAbsent(store.getId(), id -> new ArrayList<>()).add(category);
+                storesByCategoryId.computeIfAbsent(category.getId(), id -> new ArrayList<>()).add(store);
+            }
+            digest.add("stores_category", pair[0], pair[1]);
+        }
+
+        Map<Integer, List<ItemEntity>> itemsByCategoryId = new HashMap<>();
+        Map<Integer, List<CategoryEntity>> categoriesByItemId = new HashMap<>();
+        List<int[]> categoryItemIdPairs = new ArrayList<>();
+        for (Object[] pair : categoryItemIds) {
+            CategoryEntity category = categoryCopies.get(pair[0]);
+            ItemEntity item = itemCopies.get(pair[1]);
+            if (category != null && item != null) {
+                categoryItemIdPairs.add(new int[]{category.getId(), item.getId()});
+                itemsByCategoryId.computeIfAbsent(category.getId(), id -> new ArrayList<>()).add(item);
+                categoriesByItemId.computeIfAbsent(item.getId(), id -> new ArrayList<>()).add(category);
+            }
+            digest.add("category_item", pair[0], pair[1]);
+        }
+
+        Map<String, StoreEntity> storesByUuid = new HashMap<>();
+        for (StoreEntity store : storeCopies.values()) {
+            store.setCategories(sorted(categoriesByStoreId.get(store.getId()), CATEGORIES_BY_NAME));
+            store.setItems(sorted(itemsByStoreId.get(store.getId()), ITEMS_BY_NAME));
+            storesByUuid.put(store.getUuid(), store);
+        }
+
+        Map<String, CategoryEntity> categoriesByUuid = new HashMap<>();
+        Map<Integer, List<StoreEntity>> sortedStoresByCategoryId = new HashMap<>();
+        for (CategoryEntity category : categoryCopies.values()) {
+            List<StoreEntity> categoryStores = sorted(storesByCategoryId.get(category.getId()), STORES_BY_NAME);
+            category.setStores(categoryStores);
+            category.setItems(sorted(itemsByCategoryId.get(category.getId()), ITEMS_BY_NAME));
+            sortedStoresByCategoryId.put(category.getId(), categoryStores);
+            categoriesByUuid.put(category.getUuid(), category);
+        }
+
+        for (ItemEntity item : itemCopies.values()) {
+            item.setCategories(sorted(categoriesByItemId.get(item.getId()), CATEGORIES_BY_NAME));
+        }
+        ItemBitmapIndex itemBitmapIndex = ItemBitmapIndex.build(previous == null ? null : previous.itemBitmapIndex,
+                sorted(itemCopies.values(), ITEMS_BY_NAME), storeItemIds, categoryItemIdPairs);
+
+        Map<Integer, List<CategoryEntity>> sortedCategoriesByStoreId = new HashMap<>();
+        for (StoreEntity store : storeCopies.values()) {
+            sortedCategoriesByStoreId.put(store.getId(), store.getCategories());
+        }
+
+        Map<Integer, StoreSummaryEntity> storeSummariesByStoreId = new HashMap<>();
+        for (StoreSummaryEntity storeSummary : storeSummaries) {
+            if (storeCopies.containsKey(storeSummary.getStoreId())) {
+                storeSummariesByStoreId.put(storeSummary.getStoreId(), storeSummary);
+            }
+        }
+        for (StoreEntity store : storeCopies.values()) {
+            // A store only misses its row when the triggers were bypassed, like in a bulk load run with them disabled.
+            storeSummariesByStoreId.computeIfAbsent(store.getId(), id -> summarize(store));
+        }
+
+        return new CatalogSnapshot(version, digest.finish(), storesByUuid,
+                sorted(storeCopies.values(), STORES_BY_RATING), sorted(storeCopies.values(), STORES_BY_NAME),
+                categoriesByUuid, sorted(categoryCopies.values(), CATEGORIES_BY_NAME),
+                sortedCategoriesByStoreId, sortedStoresByCategoryId, itemBitmapIndex, storeSummariesByStoreId);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * @return the hex SHA-256 digest of the complete catalog content, used to find out whether a reloaded catalog has
+     * changed at all. It depends on nothing but the content, so it is the same on every instance and across restarts.
+     */
+    public String fingerprint() {
+        return fingerprint;
+    }
+
+    public StoreEntity storeByUuid(String storeUuid) {
+        return storesByUuid.get(storeUuid);
+    }
+
+    public List<StoreEntity> storesByRating() {
+        return storesByRating;
+    }
+
+    public List<StoreEntity> storesByName() {
+        return storesByName;
+    }
+
+    /**
+     * @return all the stores whose name contains the given text ignoring case, ranked by match quality and then by
+     * rating, looked up in the store name trigram index.
+     */
+    public List<StoreEntity> storesByNameContaining(String storeName) {
+        return storeNameSearchIndex.search(storeName);
+    }
+
+    public CategoryEntity categoryByUuid(String categoryUuid) {
+        return categoriesByUuid.get(categoryUuid);
+    }
+
+    public List<CategoryEntity> categoriesByName() {
+        return categoriesByName;
+    }
+
+    public List<CategoryEntity> categoriesByStoreId(Integer storeId) {
+        return categoriesByStoreId.getOrDefault(storeId, Collections.emptyList());
+    }
+
+    public List<CategoryEntity> categoriesByStoreUuid(String storeUuid) {
+        StoreEntity store = storesByUuid.get(storeUuid);
+        return store == null ? Collections.emptyList() : store.getCategories();
+    }
+
+    public List<StoreEntity> storesByCategoryUuid(String categoryUuid) {
+        CategoryEntity category = categoriesByUuid.get(categoryUuid);
+        return category == null ? Collections.emptyList() : category.getStores();
+    }
+
+    public List<ItemEntity> itemsByStoreUuid(String storeUuid) {
+        StoreEntity store = storesByUuid.get(storeUuid);
+        return store == null ? Collections.emptyList() : store.getItems();
+    }
+
+    public List<ItemEntity> itemsByStoreAndCategoryUuid(String storeUuid, String categoryUuid) {
+        StoreEntity store = storesByUuid.get(storeUuid);
+        CategoryEntity category = categoriesByUuid.get(categoryUuid);
+        if (store == null || category == null) {
+            return Collections.emptyList();
+        }
+        return itemBitmapIndex.items(store.getId(), category.getId());
+    }
+
+    /**
+     * @return the store_summary row of the store, holding everything a store listing shows. A store taken from an
+     * earlier snapshot that is no longer in this one is summarized from the store itself.
+     */
+    public StoreSummaryEntity storeSummary(StoreEntity store) {
+        StoreSummaryEntity storeSummary = storeSummariesByStoreId.get(store.getId());
+        return storeSummary != null ? storeSummary : summarize(store);
+    }
+
+    /**
+     * Builds the store_summary row of a store from the snapshot copy of the store.
+     */
+    private static StoreSummaryEntity summarize(StoreEntity store) {
+        StringJoiner categories = new StringJoiner(", ");
+        for (CategoryEntity category : store.getCategories()) {
+            categories.add(category.getCategoryName());
+        }
+        AddressEntity address = store.getAddress();
+        StateEntity state = address == null ? null : address.getState();
+        return new StoreSummaryEntity(store.getId(), store.getUuid(), store.getStoreName(), store.getCustomerRating(),
+                store.getNumberCustomersRated(), address == null ? null : address.getUuid(),
+                address == null ? null : address.getFlatBuilNo(), address == null ? null : address.getLocality(),
+                address == null ? null : address.getCity(), address == null ? null : address.getPincode(),
+                state == null ? null : state.getUuid(), state == null ? null : state.getStateName(),
+                categories.toString());
+    }
+
+    private static <T> List<T> sorted(Iterable<T> values, Comparator<? super T> comparator) {
+        if (values == null) {
+            return Collections.emptyList();
+        }
+        List<T> list = new ArrayList<>();
+        values.forEach(list::add);
+        list.sort(comparator);
+        return Collections.unmodifiableList(list);
+    }
+}
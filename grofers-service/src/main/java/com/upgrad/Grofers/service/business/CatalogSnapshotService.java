@@ -0,0 +1,122 @@
+package com.upgrad.Grofers.service.business;
+
+import com.upgrad.Grofers.service.dao.CatalogDao;
+import com.upgrad.Grofers.service.dao.ReferenceDataCache;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * CatalogSnapshotService holds the current catalog snapshot that serves all the store, category and item reads.
+ * The catalog is reloaded periodically; a new snapshot is swapped in atomically only when the catalog content has changed,
+ * so the snapshot version changes exactly when the catalog does.
+ */
+@Service
+public class CatalogSnapshotService {
+
+    @Autowired
+    private CatalogDao catalogDao;
+
+    @Autowired
+    private ReferenceDataCache referenceDataCache;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private final AtomicReference<CatalogSnapshot> current = new AtomicReference<>();
+
+    private volatile long lastRebuildEpochMillis;
+
+    private Timer rebuildTimer;
+
+    @PostConstruct
+    public void registerMetrics() {
+        Gauge.builder("grofers.catalog.version", this, CatalogSnapshotService::currentVersion)
+                .description("Version of the catalog snapshot currently serving reads")
+                .register(meterRegistry);
+        Gauge.builder("grofers.catalog.rebuild.last", this, service -> service.lastRebuildEpochMillis)
+                .description("Time of the last catalog reload, in epoch milliseconds")
+                .register(meterRegistry);
+        rebuildTimer = Timer.builder("grofers.catalog.rebuild")
+                .description("Time taken to reload the catalog and build a snapshot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the current catalog snapshot, loading the first one if the catalog has not been loaded yet.
+     */
+    public CatalogSnapshot snapshot() {
+        CatalogSnapshot snapshot = current.get();
+        return snapshot != null ? snapshot : loadInitial();
+    }
+
+    /**
+     * @return the version of the current catalog snapshot.
+     */
+    public long version() {
+        return snapshot().version();
+    }
+
+    @Scheduled(initialDelayString = "${grofers.catalog.refresh-interval-ms:60000}",
+            fixedDelayString = "${grofers.catalog.refresh-interval-ms:60000}")
+    public void scheduledRefresh() {
+        refresh();
+    }
+
+    /**
+     * This method reloads the catalog from the database and swaps in a new snapshot if the catalog has changed.
+     * Callers that modify the catalog can call it to make their change visible without waiting for the next scheduled reload.
+     *
+     * @return the snapshot serving reads after the reload.
+     */
+    public synchronized CatalogSnapshot refresh() {
+        final long start = System.nanoTime();
+        final CatalogSnapshot previous = current.get();
+        final long nextVersion = previous == null ? 1 : previous.version() + 1;
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+        // The store_summary rows are read by a query of their own and have to agree with the stores read before them.
+        transactionTemplate.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        // Stores, categories and items are read as plain rows, so the persistence context tracks nothing but the states.
+        CatalogSnapshot loaded = transactionTemplate.execute(status -> CatalogSnapshot.build(nextVersion, previous,
+                catalogDao.getAllStates(), catalogDao.getAllStores(), catalogDao.getAllCategories(),
+                catalogDao.getAllItems(), catalogDao.getStoreCategoryIds(), catalogDao.getCategoryItemIds(),
+                catalogDao.getAllStoreSummaries()));
+
+        rebuildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        lastRebuildEpochMillis = System.currentTimeMillis();
+        if (previous != null && previous.fingerprint().equals(loaded.fingerprint())) {
+            return previous;
+        }
+        if (previous != null) {
+            // The change may have been made outside of JPA, which the second-level cache would not have noticed.
+            referenceDataCache.evict();
+        }
+        current.set(loaded);
+        return loaded;
+    }
+
+    private synchronized CatalogSnapshot loadInitial() {
+        CatalogSnapshot snapshot = current.get();
+        return snapshot != null ? snapshot : refresh();
+    }
+
+    private double currentVersion() {
+        CatalogSnapshot snapshot = current.get();
+        return snapshot == null ? 0 : snapshot.version();
+    }
+}
@@ -4,7 +4,9 @@ package com.upgrad.Grofers.service.business;
 import com.upgrad.Grofers.service.entity.CategoryEntity;
 import com.upgrad.Grofers.service.exception.CategoryNotFoundException;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /*
  * This CategoryService interface gives the list of all the service that exist in the category service implementation class.
@@ -15,4 +17,5 @@ public interface CategoryService {
     CategoryEntity getCategoryById(String categoryId) throws CategoryNotFoundException;
     List<CategoryEntity> getAllCategoriesOrderedByName();
     List<CategoryEntity> getCategoriesByStores(String storeId);
+    Map<Integer, List<CategoryEntity>> getCategoriesByStoreIds(Collection<Integer> storeIds);
 }
@@ -1,25 +1,30 @@
 package com.upgrad.Grofers.service.business;
 
-import com.upgrad.Grofers.service.dao.CategoryDao;
 import com.upgrad.Grofers.service.entity.CategoryEntity;
 import com.upgrad.Grofers.service.exception.CategoryNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+/**
+ * CategoryService reads are served from the catalog snapshot and do not touch the database.
+ */
 @Service
 public class CategoryServiceImpl implements CategoryService{
 
     @Autowired
-    private CategoryDao categoryDao;
+    private CatalogSnapshotService catalogSnapshotService;
 
     /**
      * The method implements the business logic for getting category by its id endpoint.
      */
     @Override
     public CategoryEntity getCategoryById(String categoryId) throws CategoryNotFoundException {
-        return categoryDao.getCategoryById(categoryId);
+        return catalogSnapshotService.snapshot().categoryByUuid(categoryId);
     }
     
    
@@ -29,7 +34,7 @@ public class CategoryServiceImpl implements CategoryService{
      */
     @Override
     public List<CategoryEntity> getAllCategoriesOrderedByName()  {
-        return categoryDao.getAllCategoriesOrderedByName();
+        return catalogSnapshotService.snapshot().categoriesByName();
     }
 
     /**
@@ -37,6 +42,22 @@ public class CategoryServiceImpl implements CategoryService{
      */
     @Override
     public List<CategoryEntity> getCategoriesByStores(String storeId)  {
-    return categoryDao.getCategoriesByStores(storeId);
+        return catalogSnapshotService.snapshot().categoriesByStoreUuid(storeId);
+    }
+
+    /**
+     * The method implements the business logic for getting the categories of many stores at once, grouped by store id.
+     */
+    @Override
+    public Map<Integer, List<CategoryEntity>> getCategoriesByStoreIds(Collection<Integer> storeIds) {
+        CatalogSnapshot snapshot = catalogSnapshotService.snapshot();
+        Map<Integer, List<CategoryEntity>> categoriesByStoreId = new HashMap<>();
+        for (Integer storeId : storeIds) {
+            List<CategoryEntity> categories = snapshot.categoriesByStoreId(storeId);
+            if (!categories.isEmpty()) {
+                categoriesByStoreId.put(storeId, categories);
+            }
+        }
+        return categoriesByStoreId;
     }
 }
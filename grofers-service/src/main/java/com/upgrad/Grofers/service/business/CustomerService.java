@@ -6,6 +6,7 @@ import com.upgrad.Grofers.service.entity.CustomerAuthEntity;
 import com.upgrad.Grofers.service.entity.CustomerEntity;
 import com.upgrad.Grofers.service.exception.AuthenticationFailedException;
 import com.upgrad.Grofers.service.exception.AuthorizationFailedException;
+import com.upgrad.Grofers.service.exception.LoginThrottledException;
 import com.upgrad.Grofers.service.exception.SignUpRestrictedException;
 import com.upgrad.Grofers.service.exception.UpdateCustomerException;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,6 +15,7 @@ import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.ZonedDateTime;
+import java.util.concurrent.CompletableFuture;
 
 /*
  * This CustomerService interface gives the list of all the service that exist in the customer service implementation class.
@@ -22,8 +24,9 @@ import java.time.ZonedDateTime;
 @Service
 public interface CustomerService {
 
-    CustomerEntity saveCustomer(CustomerEntity customerEntity) throws SignUpRestrictedException;
-     CustomerAuthEntity authenticate(String contactNumber, String password)throws AuthenticationFailedException;
+    CompletableFuture<CustomerEntity> saveCustomer(CustomerEntity customerEntity) throws SignUpRestrictedException;
+     CompletableFuture<CustomerAuthEntity> authenticate(String contactNumber, String password, String clientAddress)
+             throws AuthenticationFailedException, LoginThrottledException;
      CustomerAuthEntity logout(String access_token) throws AuthorizationFailedException;
     void authorization(String access_token) throws AuthorizationFailedException;
     CustomerEntity updateCustomerPassword(String oldPassword, String newPassword, CustomerEntity customerEntity) throws
@@ -1,21 +1,28 @@
 package com.upgrad.Grofers.service.business;
 
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.exceptions.TokenExpiredException;
+import com.auth0.jwt.interfaces.DecodedJWT;
 import com.upgrad.Grofers.service.dao.CustomerDao;
 import com.upgrad.Grofers.service.entity.CustomerAuthEntity;
 import com.upgrad.Grofers.service.entity.CustomerEntity;
 import com.upgrad.Grofers.service.exception.AuthenticationFailedException;
 import com.upgrad.Grofers.service.exception.AuthorizationFailedException;
+import com.upgrad.Grofers.service.exception.LoginThrottledException;
 import com.upgrad.Grofers.service.exception.SignUpRestrictedException;
 import com.upgrad.Grofers.service.exception.UpdateCustomerException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.ZonedDateTime;
 import java.util.UUID;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @Service
 public class CustomerServiceImpl implements CustomerService {
@@ -26,70 +33,106 @@ public class CustomerServiceImpl implements CustomerService {
     @Autowired
     private PasswordCryptographyProvider passwordCryptographyProvider;
 
+    @Autowired
+    private AccessTokenCache accessTokenCache;
+
+    @Autowired
+    private JwtTokenProvider jwtTokenProvider;
+
+    @Autowired
+    private RevokedAccessTokens revokedAccessTokens;
+
+    @Autowired
+    private LoginThrottle loginThrottle;
+
+    @Autowired
+    private SessionJournal sessionJournal;
+
+    @Autowired
+    private CustomerWriteExecutor customerWriteExecutor;
+
+    /**
+     * In the stateless auth mode tokens are verified by their signature and expiry alone; the database is only
+     * consulted, through the revoked token set, for logouts.
+     */
+    @Value("${grofers.auth.stateless:false}")
+    private boolean stateless;
+
     /**
      * The method implements the business logic for saving customer details endpoint.
+     * The password is hashed on the password hashing executor, then the customer is saved in a transaction of its own
+     * on the customer write executor; the returned future completes once the customer is committed.
      */
     @Override
-    @Transactional(propagation = Propagation.REQUIRED)
-    public CustomerEntity saveCustomer(CustomerEntity customerEntity) throws SignUpRestrictedException {
-        String regex = "^[\\w!#$%&’*+/=?`{|}~^-]+(?:\\.[\\w!#$%&’*+/=?`{|}~^-]+)*@(?:[a-zA-Z0-9-]+\\.)+[a-zA-Z]{2,6}$";
-        Pattern pattern = Pattern.compile(regex);
-        Matcher matcher = pattern.matcher(customerEntity.getEmail());
-        String[] encryptedText = passwordCryptographyProvider.encrypt(customerEntity.getPassword());
-        customerEntity.setSalt(encryptedText[0]);
-        customerEntity.setPassword(encryptedText[1]);
-        return customerDao.saveCustomer(customerEntity);
+    public CompletableFuture<CustomerEntity> saveCustomer(final CustomerEntity customerEntity) throws SignUpRestrictedException {
+        return passwordCryptographyProvider.encryptAsync(customerEntity.getPassword()).thenCompose(encryptedText -> {
+            customerEntity.setSalt(encryptedText[0]);
+            customerEntity.setPassword(encryptedText[1]);
+            return customerWriteExecutor.submit(() -> customerDao.saveCustomer(customerEntity));
+        });
     }
 
     /**
      * The method implements the business logic for signin endpoint.
+     * Attempts beyond the login throttle limits are rejected before the customer is looked up.
+     * The password is hashed on the password hashing executor and the session is written by the session journal;
+     * the returned future completes with the new session once it is committed, or fails with an
+     * AuthenticationFailedException if the password does not match.
      */
-    @Transactional(propagation = Propagation.REQUIRED)
-    public CustomerAuthEntity authenticate(String contactNumber, String password) throws AuthenticationFailedException {
-        CustomerAuthEntity customerAuthEntity=null;
-        CustomerEntity customerEntity = customerDao.getCustomerByContactNumber(contactNumber);
+    public CompletableFuture<CustomerAuthEntity> authenticate(String contactNumber, String password, String clientAddress)
+            throws AuthenticationFailedException, LoginThrottledException {
+        loginThrottle.acquire(contactNumber, clientAddress);
+        final CustomerEntity customerEntity = customerDao.getCustomerByContactNumber(contactNumber);
 
         if (customerEntity == null) {
             throw new AuthenticationFailedException("ATH-001", "This username does not exist");
         }
         // encrypt password
-        final String encryptedPassword = PasswordCryptographyProvider.encrypt(password, customerEntity.getSalt());
-
-        // send username and encrypted password to userDao
-        //customerEntity = customerDao.authenticateUser(username, encryptedPassword);
-
-        if (customerEntity != null) {
-            // if userName and password match
-            String uuid = customerEntity.getUuid();
-            // Geneate authention token
-            JwtTokenProvider jwtTokenProvider = new JwtTokenProvider(encryptedPassword);
-            customerAuthEntity = new CustomerAuthEntity();
+        return passwordCryptographyProvider.encryptAsync(password, customerEntity.getSalt()).thenCompose(encryptedPassword -> {
+            if (!encryptedPassword.equals(customerEntity.getPassword())) {
+                throw new CompletionException(new AuthenticationFailedException("ATH-002", "Password Failed"));
+            }
+            // Geneate authention token, signed with the server-side signing key
+            CustomerAuthEntity customerAuthEntity = new CustomerAuthEntity();
             customerAuthEntity.setCustomer(customerEntity);
             final ZonedDateTime now = ZonedDateTime.now();
+            // On a customer_auth partitioned by grofers-db customer_auth_partitioned.sql, sessions must expire within
+            // the 7 days of partitions the session reaper creates ahead; later ones land in the default partition.
             final ZonedDateTime expiresAt = now.plusHours(8);
             customerAuthEntity.setAccessToken(jwtTokenProvider.generateToken(customerEntity.getUuid(), now, expiresAt));
             customerAuthEntity.setLoginAt(now);
             customerAuthEntity.setExpiresAt(expiresAt);
             customerAuthEntity.setUuid(customerEntity.getUuid());
-            customerDao.createCustomerAuth(customerAuthEntity);
-        } else {
-            // throw exception
-            throw new AuthenticationFailedException("ATH-002", "Password Failed");
-        }
-        return customerAuthEntity;
-
+            return sessionJournal.append(customerAuthEntity);
+        }).thenApply(customerAuthEntity -> {
+            // The row is committed; the first calls made with the new token are answered from memory.
+            accessTokenCache.put(customerAuthEntity.getAccessToken(), customerAuthEntity);
+            return customerAuthEntity;
+        });
     }
 
     /**
      * The method implements the business logic for logout endpoint.
      */
     @Transactional(propagation = Propagation.REQUIRED)
-    public CustomerAuthEntity logout(String access_token) throws AuthorizationFailedException {
+    public CustomerAuthEntity logout(final String access_token) throws AuthorizationFailedException {
 
-        CustomerAuthEntity customerAuthEntity = customerDao.getCustomerAuthByAccesstoken(access_token);
         authorization(access_token);
+        CustomerAuthEntity customerAuthEntity = customerDao.getCustomerAuthByAccesstoken(access_token);
         customerAuthEntity.setLogoutAt(ZonedDateTime.now());
-        return customerDao.updateCustomerAuth(customerAuthEntity);
+        CustomerAuthEntity updatedCustomerAuthEntity = customerDao.updateCustomerAuth(customerAuthEntity);
+        revokedAccessTokens.add(access_token, customerAuthEntity.getExpiresAt());
+        accessTokenCache.invalidate(access_token);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A request reading the token before the logout commits could cache it again as still logged in.
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    accessTokenCache.invalidate(access_token);
+                }
+            });
+        }
+        return updatedCustomerAuthEntity;
     }
 
     /**
@@ -100,7 +143,28 @@ public class CustomerServiceImpl implements CustomerService {
     public CustomerEntity updateCustomerPassword(String oldPassword,String newPassword, CustomerEntity customerEntity) throws UpdateCustomerException {
         final String encryptedOldPassword = PasswordCryptographyProvider.encrypt(oldPassword, customerEntity.getSalt());
         customerEntity.setPassword(newPassword);
-        return customerDao.updateCustomer(customerEntity);
+        final CustomerEntity updatedCustomerEntity = customerDao.updateCustomer(customerEntity);
+        invalidateAccessTokens(updatedCustomerEntity.getId());
+        return updatedCustomerEntity;
+    }
+
+    /**
+     * Drops the cached tokens of a changed customer, now and again once the change commits, so that no request keeps
+     * working on the customer as it was before the change.
+     */
+    private void invalidateAccessTokens(final Integer customerId) {
+        if (customerId == null) {
+            return;
+        }
+        accessTokenCache.invalidateCustomer(customerId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                @Override
+                public void afterCommit() {
+                    accessTokenCache.invalidateCustomer(customerId);
+                }
+            });
+        }
     }
 
 
@@ -109,18 +173,68 @@ public class CustomerServiceImpl implements CustomerService {
      */
     @Override
     public void authorization(String access_token) throws AuthorizationFailedException {
-
-        CustomerAuthEntity customerAuthEntity = customerDao.getCustomerAuthByAccesstoken(access_token);
+        if (stateless) {
+            verifyAccessToken(access_token);
+        } else {
+            authorizedAccessToken(access_token);
+        }
     }
 
     /**
      * The method implements the business logic for getting customer details by access token.
+     * The customer is read for every request: in the stateless auth mode by the uuid the verified token is issued for,
+     * otherwise by the id of the session the token cache resolves the token to.
      */
     @Override
     public CustomerEntity getCustomer(String access_token) throws AuthorizationFailedException {
+        final CustomerEntity customerEntity;
+        if (stateless) {
+            customerEntity = customerDao.getCustomerByUuid(verifyAccessToken(access_token).getAudience().get(0));
+        } else {
+            customerEntity = customerDao.getCustomerById(authorizedAccessToken(access_token).getCustomerId());
+        }
+        if (customerEntity == null) {
+            throw new AuthorizationFailedException("ATHR-001", "Customer is not Logged in.");
+        }
+        return customerEntity;
+    }
 
-        authorization(access_token);
-        CustomerAuthEntity customerAuthEntity = customerDao.getCustomerAuthByAccesstoken(access_token);
-        return customerAuthEntity.getCustomer();
+    /**
+     * Checks the access token in CPU only: signature, issuer, audience and expiry, plus the in-memory revoked token set.
+     */
+    private DecodedJWT verifyAccessToken(String access_token) throws AuthorizationFailedException {
+        final DecodedJWT decodedJWT;
+        try {
+            decodedJWT = jwtTokenProvider.verify(access_token);
+        } catch (TokenExpiredException e) {
+            throw new AuthorizationFailedException("ATHR-003", "Your session is expired. Log in again to access this endpoint.");
+        } catch (JWTVerificationException e) {
+            throw new AuthorizationFailedException("ATHR-001", "Customer is not Logged in.");
+        }
+        if (revokedAccessTokens.contains(access_token)) {
+            throw new AuthorizationFailedException("ATHR-002", "Customer is logged out. Log in again to access this endpoint.");
+        }
+        return decodedJWT;
+    }
+
+    /**
+     * Resolves the access token from the token cache, going to the database only on a cache miss, and checks that it
+     * still authorizes its customer.
+     */
+    private AccessTokenCache.CachedAccessToken authorizedAccessToken(String access_token) throws AuthorizationFailedException {
+        AccessTokenCache.CachedAccessToken accessToken = accessTokenCache.get(access_token);
+        if (accessToken == null) {
+            accessToken = accessTokenCache.put(access_token, customerDao.getCustomerAuthByAccesstoken(access_token));
+        }
+        if (!accessToken.isKnown()) {
+            throw new AuthorizationFailedException("ATHR-001", "Customer is not Logged in.");
+        }
+        if (accessToken.isLoggedOut()) {
+            throw new AuthorizationFailedException("ATHR-002", "Customer is logged out. Log in again to access this endpoint.");
+        }
+        if (accessToken.isExpired()) {
+            throw new AuthorizationFailedException("ATHR-003", "Your session is expired. Log in again to access this endpoint.");
+        }
+        return accessToken;
     }
 }
@@ -0,0 +1,82 @@
+package com.upgrad.Grofers.service.business;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * CustomerWriteExecutor runs the customer writes that follow an asynchronous password hash, such as the insert of a
+ * signup, each in a transaction of its own on a small thread pool. The hashing threads are sized for CPU work and are
+ * handed back as soon as the hash is computed, instead of waiting on the database.
+ * The queue in front of the pool is bounded: when it is full a write is rejected right away with a
+ * RejectedExecutionException, which is answered with 503 Service Unavailable.
+ */
+@Component
+public class CustomerWriteExecutor {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Value("${grofers.customer-write.threads:4}")
+    private int threads;
+
+    @Value("${grofers.customer-write.queue-capacity:64}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    private TransactionTemplate transactionTemplate;
+
+    @PostConstruct
+    public void start() {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "customer-write-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+        transactionTemplate = new TransactionTemplate(transactionManager);
+
+        Gauge.builder("grofers.customer.write.queue", executor, pool -> pool.getQueue().size())
+                .description("Customer writes waiting for a write thread")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * @param write - Writes to the database; it runs in a new transaction, committed once it returns.
+     * @return a future completed with the result of the write once it has committed, or failed with a
+     * RejectedExecutionException if the write queue is full.
+     */
+    public <T> CompletableFuture<T> submit(final Supplier<T> write) {
+        try {
+            return CompletableFuture.supplyAsync(() -> transactionTemplate.execute(status -> write.get()), executor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<T> rejected = new CompletableFuture<T>();
+            rejected.completeExceptionally(e);
+            return rejected;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.upgrad.Grofers.service.business;
+
+import com.upgrad.Grofers.service.dao.CustomerDao;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.time.ZonedDateTime;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * ExpiredSessionReaper periodically deletes the customer_auth rows that can no longer authorize anything: sessions
+ * expired for longer than the grace period, and in the stateful auth mode sessions logged out for longer than it.
+ * Rows are deleted in bounded batches, each in a transaction of its own, so a pass never holds many row locks or a
+ * long transaction. In the stateless mode logged-out sessions are kept until they expire, since they are the
+ * revocation list other instances read.
+ * On a customer_auth table partitioned by expires_at, a pass also rolls the daily partitions, dropping the expired
+ * ones as a whole. Sessions expiring outside the daily partitions land in the default partition; the number of them
+ * and the time the partitions were last maintained are published as gauges, to alert on when maintenance falls
+ * behind.
+ */
+@Component
+public class ExpiredSessionReaper {
+
+    @Autowired
+    private CustomerDao customerDao;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${grofers.auth.stateless:false}")
+    private boolean stateless;
+
+    @Value("${grofers.auth.session-reaper.enabled:true}")
+    private boolean enabled;
+
+    @Value("${grofers.auth.session-reaper.grace-ms:3600000}")
+    private long graceMillis;
+
+    @Value("${grofers.auth.session-reaper.batch-size:1000}")
+    private int batchSize;
+
+    @Value("${grofers.auth.session-reaper.partitioned:false}")
+    private boolean partitioned;
+
+    private Counter expiredReaped;
+
+    private Counter loggedOutReaped;
+
+    private Counter partitionsDropped;
+
+    private Timer passTimer;
+
+    private final AtomicLong defaultPartitionSessions = new AtomicLong();
+
+    private final AtomicLong partitionsMaintainedAt = new AtomicLong(System.currentTimeMillis());
+
+    @PostConstruct
+    public void start() {
+        expiredReaped = Counter.builder("grofers.session.reaper.reaped")
+                .description("Sessions deleted from customer_auth by the session reaper")
+                .tag("reason", "expired")
+                .register(meterRegistry);
+        loggedOutReaped = Counter.builder("grofers.session.reaper.reaped")
+                .description("Sessions deleted from customer_auth by the session reaper")
+                .tag("reason", "logged_out")
+                .register(meterRegistry);
+        partitionsDropped = Counter.builder("grofers.session.reaper.partitions.dropped")
+                .description("Expired customer_auth partitions dropped by the session reaper")
+                .register(meterRegistry);
+        if (partitioned) {
+            Gauge.builder("grofers.session.reaper.partitions.default.sessions", defaultPartitionSessions, AtomicLong::get)
+                    .description("Sessions in the default customer_auth partition, outside the daily partitions")
+                    .register(meterRegistry);
+            Gauge.builder("grofers.session.reaper.partitions.maintained.last", partitionsMaintainedAt, AtomicLong::get)
+                    .description("Time the customer_auth partitions were last maintained, in epoch milliseconds")
+                    .register(meterRegistry);
+        }
+        passTimer = Timer.builder("grofers.session.reaper.pass")
+                .description("Time taken by one pass of the session reaper")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(initialDelayString = "${grofers.auth.session-reaper.interval-ms:300000}",
+            fixedDelayString = "${grofers.auth.session-reaper.interval-ms:300000}")
+    public void scheduledReap() {
+        if (enabled) {
+            reap();
+        }
+    }
+
+    /**
+     * This method runs one pass of the reaper.
+     *
+     * @return the number of sessions deleted.
+     */
+    public long reap() {
+        final long startedAt = System.nanoTime();
+        try {
+            // Expired sessions are kept for a while so their tokens are still answered as expired, not as unknown.
+            final ZonedDateTime reapBefore = ZonedDateTime.now().minusNanos(TimeUnit.MILLISECONDS.toNanos(graceMillis));
+            if (partitioned) {
+                partitionsDropped.increment(customerDao.maintainCustomerAuthPartitions());
+                partitionsMaintainedAt.set(System.currentTimeMillis());
+                defaultPartitionSessions.set(customerDao.countDefaultPartitionCustomerAuths());
+            }
+            long reaped = 0;
+            int deleted;
+            do {
+                deleted = customerDao.deleteExpiredCustomerAuths(reapBefore, batchSize);
+                expiredReaped.increment(deleted);
+                reaped += deleted;
+            } while (deleted == batchSize);
+            if (!stateless) {
+                do {
+                    deleted = customerDao.deleteLoggedOutCustomerAuths(reapBefore, batchSize);
+                    loggedOutReaped.increment(deleted);
+                    reaped += deleted;
+                } while (deleted == batchSize);
+            }
+            return reaped;
+        } finally {
+            passTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+        }
+    }
+}
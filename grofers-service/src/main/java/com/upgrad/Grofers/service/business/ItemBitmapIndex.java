@@ -0,0 +1,116 @@
+package com.upgrad.Grofers.service.business;
+
+import com.upgrad.Grofers.service.entity.ItemEntity;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * ItemBitmapIndex maps every store and every category to a compressed bitmap of the items it holds.
+ * Items are numbered by their position in item name order, so the items of a (store, category) pair are the
+ * intersection of two bitmaps and come out already sorted by name.
+ * An index is never modified; {@link #build} creates the index of a reloaded catalog and shares every bitmap
+ * whose store_item or category_item rows did not change.
+ */
+final class ItemBitmapIndex {
+
+    private static final RoaringBitmap NO_ITEMS = new RoaringBitmap();
+
+    private final List<ItemEntity> itemsByName;
+
+    private final int[] itemIdsByOrdinal;
+
+    private final Map<Integer, Integer> ordinalsByItemId;
+
+    private final Map<Integer, RoaringBitmap> itemsByStoreId;
+
+    private final Map<Integer, RoaringBitmap> itemsByCategoryId;
+
+    private ItemBitmapIndex(List<ItemEntity> itemsByName, int[] itemIdsByOrdinal, Map<Integer, Integer> ordinalsByItemId,
+                            Map<Integer, RoaringBitmap> itemsByStoreId, Map<Integer, RoaringBitmap> itemsByCategoryId) {
+        this.itemsByName = itemsByName;
+        this.itemIdsByOrdinal = itemIdsByOrdinal;
+        this.ordinalsByItemId = ordinalsByItemId;
+        this.itemsByStoreId = itemsByStoreId;
+        this.itemsByCategoryId = itemsByCategoryId;
+    }
+
+    /**
+     * This method builds the index of a (re)loaded catalog. When the items themselves are unchanged since the previous
+     * index, its item numbering is kept, so the bitmaps of all the stores and categories whose item links did not
+     * change are reused as they are and only the changed ones take new memory.
+     *
+     * @param previous        the index of the previous snapshot, or null on the first load.
+     * @param itemsByName     all the items, ordered by item name, as an unmodifiable list.
+     * @param storeItemIds    pairs of [store id, item id].
+     * @param categoryItemIds pairs of [category id, item id].
+     * @return the index over the given items.
+     */
+    static ItemBitmapIndex build(ItemBitmapIndex previous, List<ItemEntity> itemsByName, List<int[]> storeItemIds,
+                                 List<int[]> categoryItemIds) {
+        int[] itemIdsByOrdinal = new int[itemsByName.size()];
+        for (int ordinal = 0; ordinal < itemIdsByOrdinal.length; ordinal++) {
+            itemIdsByOrdinal[ordinal] = itemsByName.get(ordinal).getId();
+        }
+        Map<Integer, Integer> ordinalsByItemId;
+        Map<Integer, RoaringBitmap> previousByStoreId = Collections.emptyMap();
+        Map<Integer, RoaringBitmap> previousByCategoryId = Collections.emptyMap();
+        if (previous != null && Arrays.equals(previous.itemIdsByOrdinal, itemIdsByOrdinal)) {
+            ordinalsByItemId = previous.ordinalsByItemId;
+            previousByStoreId = previous.itemsByStoreId;
+            previousByCategoryId = previous.itemsByCategoryId;
+        } else {
+            ordinalsByItemId = new HashMap<>();
+            for (int ordinal = 0; ordinal < itemIdsByOrdinal.length; ordinal++) {
+                ordinalsByItemId.put(itemIdsByOrdinal[ordinal], ordinal);
+            }
+        }
+        return new ItemBitmapIndex(itemsByName, itemIdsByOrdinal,
+                ordinalsByItemId, bitmaps(storeItemIds, ordinalsByItemId, previousByStoreId),
+                bitmaps(categoryItemIds, ordinalsByItemId, previousByCategoryId));
+    }
+
+    /**
+     * @return the items of the store under the category, ordered by item name.
+     */
+    List<ItemEntity> items(Integer storeId, Integer categoryId) {
+        RoaringBitmap storeItems = itemsByStoreId.getOrDefault(storeId, NO_ITEMS);
+        RoaringBitmap categoryItems = itemsByCategoryId.getOrDefault(categoryId, NO_ITEMS);
+        if (storeItems.isEmpty() || categoryItems.isEmpty()) {
+            return Collections.emptyList();
+        }
+        RoaringBitmap ordinals = RoaringBitmap.and(storeItems, categoryItems);
+        List<ItemEntity> items = new ArrayList<>(ordinals.getCardinality());
+        IntIterator iterator = ordinals.getIntIterator();
+        while (iterator.hasNext()) {
+            items.add(itemsByName.get(iterator.next()));
+        }
+        return Collections.unmodifiableList(items);
+    }
+
+    private static Map<Integer, RoaringBitmap> bitmaps(List<int[]> ownerItemIds, Map<Integer, Integer> ordinalsByItemId,
+                                                       Map<Integer, RoaringBitmap> previous) {
+        Map<Integer, RoaringBitmap> bitmaps = new HashMap<>();
+        for (int[] pair : ownerItemIds) {
+            Integer ordinal = ordinalsByItemId.get(pair[1]);
+            if (ordinal != null) {
+                bitmaps.computeIfAbsent(pair[0], id -> new RoaringBitmap()).add(ordinal);
+            }
+        }
+        bitmaps.replaceAll((ownerId, bitmap) -> {
+            RoaringBitmap unchanged = previous.get(ownerId);
+            if (bitmap.equals(unchanged)) {
+                return unchanged;
+            }
+            bitmap.runOptimize();
+            return bitmap;
+        });
+        return Collections.unmodifiableMap(bitmaps);
+    }
+}
@@ -11,4 +11,6 @@ import java.util.List;
 public interface ItemService {
 
     List<ItemEntity> getItemsByCategoryAndStore(String storeId, String categoryId);
+
+    List<ItemEntity> getItemsByStore(String storeId);
 }
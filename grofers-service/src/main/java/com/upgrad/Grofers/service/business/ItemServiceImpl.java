@@ -1,25 +1,35 @@
 package com.upgrad.Grofers.service.business;
 
 
-import com.upgrad.Grofers.service.dao.ItemDao;
 import com.upgrad.Grofers.service.entity.ItemEntity;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import java.util.List;
 
+/**
+ * ItemService reads are served from the catalog snapshot and do not touch the database.
+ */
 @Service
 public class ItemServiceImpl implements ItemService {
 
     @Autowired
-    private ItemDao itemDao;
+    private CatalogSnapshotService catalogSnapshotService;
 
     /**
      * The method implements the business logic for getting list of items based on store and category uuid.
      */
     @Override
     public List<ItemEntity>  getItemsByCategoryAndStore(String storeId, String categoryId) {
-        return itemDao.getItemsByCategoryAndStore(storeId, categoryId);
+        return catalogSnapshotService.snapshot().itemsByStoreAndCategoryUuid(storeId, categoryId);
+    }
+
+    /**
+     * The method implements the business logic for getting all the items of a store, with their categories, by store uuid.
+     */
+    @Override
+    public List<ItemEntity> getItemsByStore(String storeId) {
+        return catalogSnapshotService.snapshot().itemsByStoreUuid(storeId);
     }
 
 }
@@ -1,33 +1,51 @@
 package com.upgrad.Grofers.service.business;
 
 import com.auth0.jwt.JWT;
+import com.auth0.jwt.JWTVerifier;
 import com.auth0.jwt.algorithms.Algorithm;
-import com.upgrad.Grofers.service.common.GenericErrorCode;
-import com.upgrad.Grofers.service.common.UnexpectedException;
+import com.auth0.jwt.exceptions.JWTVerificationException;
+import com.auth0.jwt.interfaces.DecodedJWT;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
 
+import java.nio.charset.StandardCharsets;
 import java.time.ZonedDateTime;
-import java.time.temporal.ChronoField;
 import java.util.Date;
+import java.util.List;
 import java.util.UUID;
 
-
+/**
+ * JwtTokenProvider signs and verifies the customer access tokens with the server-side signing key.
+ * A token is issued by Grofers for one customer, its audience is the customer uuid.
+ * The key has no default: the application does not start without a key of at least {@link #MIN_SECRET_BYTES} bytes,
+ * since in the stateless auth mode anyone knowing the key can issue a token for any customer.
+ */
+@Component
 public class JwtTokenProvider {
     private static final String TOKEN_ISSUER = "https://Grofers.io";
 
+    //HMAC-SHA512 works on 512-bit blocks; a shorter key weakens the signature.
+    static final int MIN_SECRET_BYTES = 64;
+
     private final Algorithm algorithm;
 
-    public JwtTokenProvider(final String secret) {
-        try {
-            algorithm = Algorithm.HMAC512(secret);
-        } catch (IllegalArgumentException e) {
-            throw new UnexpectedException(GenericErrorCode.GEN_001);
+    private final JWTVerifier verifier;
+
+    @Autowired
+    public JwtTokenProvider(@Value("${grofers.jwt.secret:}") final String secret) {
+        if (secret == null || secret.getBytes(StandardCharsets.UTF_8).length < MIN_SECRET_BYTES) {
+            throw new IllegalStateException("grofers.jwt.secret (GROFERS_JWT_SECRET) must be set to a signing key of at least "
+                    + MIN_SECRET_BYTES + " bytes");
         }
+        algorithm = Algorithm.HMAC512(secret);
+        verifier = JWT.require(algorithm).withIssuer(TOKEN_ISSUER).build();
     }
 
     public String generateToken(final String customerUuid, final ZonedDateTime issuedDateTime, final ZonedDateTime expiresDateTime) {
 
-        final Date issuedAt = new Date(issuedDateTime.getLong(ChronoField.INSTANT_SECONDS));
-        final Date expiresAt = new Date(expiresDateTime.getLong(ChronoField.INSTANT_SECONDS));
+        final Date issuedAt = Date.from(issuedDateTime.toInstant());
+        final Date expiresAt = Date.from(expiresDateTime.toInstant());
 
         return JWT.create().withIssuer(TOKEN_ISSUER) //
                 .withKeyId(UUID.randomUUID().toString())
@@ -35,4 +53,21 @@ public class JwtTokenProvider {
                 .withIssuedAt(issuedAt).withExpiresAt(expiresAt).sign(algorithm);
     }
 
+    /**
+     * This method checks the signature, issuer, audience and expiry of a token without any database access.
+     *
+     * @param token - The access token to be verified.
+     * @return the decoded token, whose single audience is the uuid of the customer it was issued for.
+     * @throws JWTVerificationException if the token is malformed, not signed with the signing key, not issued by
+     *                                  Grofers, not issued for exactly one customer, or expired (TokenExpiredException).
+     */
+    public DecodedJWT verify(final String token) {
+        DecodedJWT decodedJWT = verifier.verify(token);
+        List<String> audience = decodedJWT.getAudience();
+        if (audience == null || audience.size() != 1 || audience.get(0).isEmpty()) {
+            throw new JWTVerificationException("The token is not issued for a single customer");
+        }
+        return decodedJWT;
+    }
+
 }
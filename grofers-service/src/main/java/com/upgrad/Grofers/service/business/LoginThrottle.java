@@ -0,0 +1,241 @@
+package com.upgrad.Grofers.service.business;
+
+import com.upgrad.Grofers.service.exception.LoginThrottledException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LoginThrottle limits login attempts per contact number and per client address with in-memory token buckets,
+ * so bursts of attempts are turned away before the customer lookup and the password hash are paid for.
+ * Buckets are spread over lock stripes so concurrent logins for different keys rarely wait on each other.
+ * A bucket that has refilled completely carries no state and is dropped. Each stripe is bounded in size: refilled
+ * buckets are dropped first to make room, and only when none has refilled is the least recently used bucket evicted.
+ * A key is never refused because its stripe is full, so spraying contact numbers or addresses cannot lock other
+ * customers out; the price is that an evicted key starts over with a full bucket, which takes as many new keys in its
+ * stripe as the stripe holds after its last attempt.
+ */
+@Component
+public class LoginThrottle {
+
+    private static final int STRIPES = 64;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${grofers.login-throttle.account.capacity:5}")
+    private int accountCapacity;
+
+    @Value("${grofers.login-throttle.account.refill-per-minute:5}")
+    private double accountRefillPerMinute;
+
+    @Value("${grofers.login-throttle.address.capacity:30}")
+    private int addressCapacity;
+
+    @Value("${grofers.login-throttle.address.refill-per-minute:60}")
+    private double addressRefillPerMinute;
+
+    @Value("${grofers.login-throttle.max-buckets:100000}")
+    private int maxBuckets;
+
+    private Limit accountLimit;
+
+    private Limit addressLimit;
+
+    private Stripe[] stripes;
+
+    private Counter accountRejections;
+
+    private Counter addressRejections;
+
+    private Counter evictions;
+
+    @PostConstruct
+    public void start() {
+        accountLimit = new Limit(accountCapacity, accountRefillPerMinute);
+        addressLimit = new Limit(addressCapacity, addressRefillPerMinute);
+        final int maxBucketsPerStripe = Math.max(1, maxBuckets / STRIPES);
+        stripes = new Stripe[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(maxBucketsPerStripe);
+        }
+
+        accountRejections = Counter.builder("grofers.login.throttled")
+                .description("Login attempts rejected by the login throttle")
+                .tag("key", "contact_number")
+                .register(meterRegistry);
+        addressRejections = Counter.builder("grofers.login.throttled")
+                .description("Login attempts rejected by the login throttle")
+                .tag("key", "client_address")
+                .register(meterRegistry);
+        evictions = Counter.builder("grofers.login.throttle.evictions")
+                .description("Login buckets evicted before they had refilled, to make room for new keys")
+                .register(meterRegistry);
+        Gauge.builder("grofers.login.throttle.buckets", this, LoginThrottle::bucketCount)
+                .description("Contact numbers and client addresses with a partly used login bucket")
+                .register(meterRegistry);
+    }
+
+    /**
+     * This method takes one login attempt from the bucket of the client address and from the bucket of the contact number.
+     *
+     * @param contactNumber - The contact number the login is attempted for.
+     * @param clientAddress - The address of the client attempting the login, or null if it is not known.
+     * @throws LoginThrottledException - if either bucket is empty.
+     */
+    public void acquire(final String contactNumber, final String clientAddress) throws LoginThrottledException {
+        final long now = System.nanoTime();
+        if (clientAddress != null) {
+            long waitNanos = tryAcquire("address:" + clientAddress, addressLimit, now);
+            if (waitNanos > 0) {
+                addressRejections.increment();
+                throw throttled(waitNanos);
+            }
+        }
+        long waitNanos = tryAcquire("account:" + contactNumber, accountLimit, now);
+        if (waitNanos > 0) {
+            accountRejections.increment();
+            throw throttled(waitNanos);
+        }
+    }
+
+    /**
+     * Drops the buckets that have refilled completely since they were last used.
+     */
+    @Scheduled(fixedDelayString = "${grofers.login-throttle.sweep-interval-ms:60000}")
+    public void expireIdleBuckets() {
+        final long now = System.nanoTime();
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                stripe.removeRefilledBuckets(now);
+            }
+        }
+    }
+
+    /**
+     * @return 0 if a token was taken, otherwise the nanoseconds until the bucket holds a token again.
+     */
+    private long tryAcquire(final String key, final Limit limit, final long now) {
+        final Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        synchronized (stripe) {
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                if (stripe.buckets.size() >= stripe.maxBuckets && !stripe.removeRefilledBuckets(now)) {
+                    Iterator<Bucket> leastRecentlyUsed = stripe.buckets.values().iterator();
+                    leastRecentlyUsed.next();
+                    leastRecentlyUsed.remove();
+                    evictions.increment();
+                }
+                bucket = new Bucket(limit, now);
+                stripe.buckets.put(key, bucket);
+            }
+            return bucket.take(now);
+        }
+    }
+
+    private double bucketCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                count += stripe.buckets.size();
+            }
+        }
+        return count;
+    }
+
+    private static LoginThrottledException throttled(final long waitNanos) {
+        final long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        return new LoginThrottledException("ATH-003", "Too many login attempts, please try again later", retryAfterSeconds);
+    }
+
+    /**
+     * The buckets of one lock stripe, least recently used first; guarded by the lock of the stripe.
+     */
+    private static final class Stripe {
+
+        private final int maxBuckets;
+
+        private final Map<String, Bucket> buckets = new LinkedHashMap<>(16, 0.75f, true);
+
+        private Stripe(final int maxBuckets) {
+            this.maxBuckets = maxBuckets;
+        }
+
+        /**
+         * @return true if any bucket had refilled completely and was dropped.
+         */
+        private boolean removeRefilledBuckets(final long now) {
+            boolean removed = false;
+            Iterator<Bucket> iterator = buckets.values().iterator();
+            while (iterator.hasNext()) {
+                if (iterator.next().isFull(now)) {
+                    iterator.remove();
+                    removed = true;
+                }
+            }
+            return removed;
+        }
+    }
+
+    /**
+     * The size of a bucket and the time it takes to refill one token.
+     */
+    private static final class Limit {
+
+        private final int capacity;
+
+        private final double nanosPerToken;
+
+        private Limit(final int capacity, final double refillPerMinute) {
+            this.capacity = capacity;
+            this.nanosPerToken = TimeUnit.MINUTES.toNanos(1) / refillPerMinute;
+        }
+    }
+
+    /**
+     * A token bucket; guarded by the lock of its stripe.
+     */
+    private static final class Bucket {
+
+        private final Limit limit;
+
+        private double tokens;
+
+        private long updatedAt;
+
+        private Bucket(final Limit limit, final long now) {
+            this.limit = limit;
+            this.tokens = limit.capacity;
+            this.updatedAt = now;
+        }
+
+        private long take(final long now) {
+            refill(now);
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            return (long) Math.ceil((1 - tokens) * limit.nanosPerToken);
+        }
+
+        private boolean isFull(final long now) {
+            refill(now);
+            return tokens >= limit.capacity;
+        }
+
+        private void refill(final long now) {
+            tokens = Math.min(limit.capacity, tokens + (now - updatedAt) / limit.nanosPerToken);
+            updatedAt = now;
+        }
+    }
+}
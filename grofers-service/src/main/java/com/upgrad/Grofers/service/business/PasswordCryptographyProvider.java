@@ -1,26 +1,44 @@
 package com.upgrad.Grofers.service.business;
 
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
-import javax.crypto.SecretKey;
 import javax.crypto.SecretKeyFactory;
 import javax.crypto.spec.PBEKeySpec;
 import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
 import java.security.spec.InvalidKeySpecException;
 import java.util.Base64;
-import java.util.Random;
+import java.util.concurrent.CompletableFuture;
 
 
+/**
+ * PasswordCryptographyProvider hashes passwords with PBKDF2WithHmacSHA512. Each hashing thread keeps its own
+ * SecretKeyFactory, so the provider is looked up once per thread rather than once per hash.
+ */
 @Component
 public class PasswordCryptographyProvider {
 
-    private static String SECRET_KEY_ALGORITHM = "PBKDF2WithHmacSHA512";
-    private static int HASHING_ITERATIONS = 1000;
-    private static int HASHING_KEY_LENGTH = 64;
+    private static final String SECRET_KEY_ALGORITHM = "PBKDF2WithHmacSHA512";
+    private static final int HASHING_ITERATIONS = 1000;
+    private static final int HASHING_KEY_LENGTH = 64;
     private final static char[] hexArray = "0123456789ABCDEF".toCharArray();
 
+    // SecureRandom is thread safe; seeding a new one for every salt is the expensive part of creating it.
+    private static final SecureRandom SALT_RANDOM = new SecureRandom();
+
+    private static final ThreadLocal<SecretKeyFactory> SECRET_KEY_FACTORY = ThreadLocal.withInitial(() -> {
+        try {
+            return SecretKeyFactory.getInstance(SECRET_KEY_ALGORITHM);
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    });
+
+    @Autowired
+    private PasswordHashingExecutor passwordHashingExecutor;
+
     /**
      * This method generates Salt and hashed Password
      *
@@ -45,15 +63,35 @@ public class PasswordCryptographyProvider {
         return bytesToHex(hashPassword(password.toCharArray(), getBase64DecodedStringAsBytes(salt)));
     }
 
+    /**
+     * This method generates Salt and hashed Password on the password hashing executor.
+     *
+     * @param password raw password.
+     * @return future of the String array with [0] encoded salt [1] hashed password.
+     */
+    public CompletableFuture<String[]> encryptAsync(final String password) {
+        return passwordHashingExecutor.submit(() -> encrypt(password));
+    }
+
+    /**
+     * This method re-generates hashed Password from raw-password and salt on the password hashing executor.
+     *
+     * @param password raw password.
+     * @param salt     encoded salt.
+     * @return future of the hashed password.
+     */
+    public CompletableFuture<String> encryptAsync(final String password, final String salt) {
+        return passwordHashingExecutor.submit(() -> encrypt(password, salt));
+    }
+
     /**
      * This method generates Salt
      *
      * @return 32 bytes long array
      */
     private static byte[] generateSaltBytes() {
-        final Random random = new SecureRandom();
         byte[] saltBytes = new byte[32];
-        random.nextBytes(saltBytes);
+        SALT_RANDOM.nextBytes(saltBytes);
         return saltBytes;
     }
 
@@ -65,14 +103,13 @@ public class PasswordCryptographyProvider {
      * @return byte array of hashed password.
      */
     private static byte[] hashPassword(final char[] password, final byte[] salt) {
+        final PBEKeySpec spec = new PBEKeySpec(password, salt, HASHING_ITERATIONS, HASHING_KEY_LENGTH);
         try {
-            SecretKeyFactory skf = SecretKeyFactory.getInstance(SECRET_KEY_ALGORITHM);
-            PBEKeySpec spec = new PBEKeySpec(password, salt, HASHING_ITERATIONS, HASHING_KEY_LENGTH);
-            SecretKey key = skf.generateSecret(spec);
-            byte[] res = key.getEncoded();
-            return res;
-        } catch (NoSuchAlgorithmException | InvalidKeySpecException e) {
+            return SECRET_KEY_FACTORY.get().generateSecret(spec).getEncoded();
+        } catch (InvalidKeySpecException e) {
             throw new RuntimeException(e);
+        } finally {
+            spec.clearPassword();
         }
     }
 
@@ -0,0 +1,97 @@
+package com.upgrad.Grofers.service.business;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * PasswordHashingExecutor runs the CPU-bound password hashing of signup and login on its own fixed-size thread pool,
+ * one thread per core by default, so a burst of logins cannot take the request threads serving the rest of the API.
+ * The queue in front of the pool is bounded: when it is full a hash is rejected right away with a
+ * RejectedExecutionException, which is answered with 503 Service Unavailable, instead of waiting behind the burst.
+ */
+@Component
+public class PasswordHashingExecutor {
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${grofers.password-hashing.threads:0}")
+    private int threads;
+
+    @Value("${grofers.password-hashing.queue-capacity:64}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    private Timer hashTimer;
+
+    private Timer waitTimer;
+
+    @PostConstruct
+    public void start() {
+        final int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        final AtomicInteger threadNumber = new AtomicInteger();
+        executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<Runnable>(queueCapacity), runnable -> {
+            Thread thread = new Thread(runnable, "password-hashing-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.AbortPolicy());
+
+        Gauge.builder("grofers.password.hash.queue", executor, pool -> pool.getQueue().size())
+                .description("Password hashes waiting for a hashing thread")
+                .register(meterRegistry);
+        Gauge.builder("grofers.password.hash.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Password hashes being computed")
+                .register(meterRegistry);
+        hashTimer = Timer.builder("grofers.password.hash")
+                .description("Time taken to compute a password hash")
+                .register(meterRegistry);
+        waitTimer = Timer.builder("grofers.password.hash.wait")
+                .description("Time a password hash waited in the queue before a hashing thread picked it up")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void stop() {
+        executor.shutdown();
+    }
+
+    /**
+     * @param hash - Computes the password hash.
+     * @return a future completed with the hash on a hashing thread, or failed with a RejectedExecutionException
+     * if the hashing queue is full.
+     */
+    public <T> CompletableFuture<T> submit(final Supplier<T> hash) {
+        final long queuedAt = System.nanoTime();
+        try {
+            return CompletableFuture.supplyAsync(() -> {
+                final long startedAt = System.nanoTime();
+                waitTimer.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return hash.get();
+                } finally {
+                    hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            }, executor);
+        } catch (RejectedExecutionException e) {
+            CompletableFuture<T> rejected = new CompletableFuture<T>();
+            rejected.completeExceptionally(e);
+            return rejected;
+        }
+    }
+}
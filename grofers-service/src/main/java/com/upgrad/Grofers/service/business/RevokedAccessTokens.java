@@ -0,0 +1,73 @@
+package com.upgrad.Grofers.service.business;
+
+import com.upgrad.Grofers.service.dao.CustomerDao;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.ZonedDateTime;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * RevokedAccessTokens holds the access tokens that were logged out before they expired, for the stateless auth mode.
+ * Logouts on this instance are added right away; logouts on other instances are picked up by polling customer_auth
+ * for recent logouts. Tokens drop out of the set once they expire, since the token expiry rejects them from then on.
+ */
+@Component
+public class RevokedAccessTokens {
+
+    /**
+     * Logouts are read again for this long after a poll, so a logout committed while the previous poll ran is not missed.
+     */
+    private static final long POLL_OVERLAP_SECONDS = 60;
+
+    @Autowired
+    private CustomerDao customerDao;
+
+    @Value("${grofers.auth.stateless:false}")
+    private boolean stateless;
+
+    private final Map<String, ZonedDateTime> expiresAtByToken = new ConcurrentHashMap<>();
+
+    private volatile ZonedDateTime lastPoll;
+
+    /**
+     * @return true if the token was logged out.
+     */
+    public boolean contains(final String accessToken) {
+        if (lastPoll == null) {
+            poll();
+        }
+        return expiresAtByToken.containsKey(accessToken);
+    }
+
+    /**
+     * This method records a logout made on this instance. Outside of the stateless auth mode nothing is recorded, since
+     * tokens are checked against customer_auth and the set is neither read nor pruned.
+     */
+    public void add(final String accessToken, final ZonedDateTime expiresAt) {
+        if (stateless) {
+            expiresAtByToken.put(accessToken, expiresAt);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${grofers.auth.revocation-refresh-ms:5000}")
+    public void scheduledPoll() {
+        if (stateless) {
+            poll();
+        }
+    }
+
+    private synchronized void poll() {
+        final ZonedDateTime now = ZonedDateTime.now();
+        // The first poll reads every logged-out session that has not expired yet.
+        final ZonedDateTime since = lastPoll == null ? now.minusYears(1) : lastPoll.minusSeconds(POLL_OVERLAP_SECONDS);
+        for (Object[] revoked : customerDao.getRevokedAccessTokens(since, now)) {
+            expiresAtByToken.put((String) revoked[0], (ZonedDateTime) revoked[1]);
+        }
+        expiresAtByToken.values().removeIf(expiresAt -> expiresAt.isBefore(now));
+        lastPoll = now;
+    }
+}
@@ -0,0 +1,179 @@
+package com.upgrad.Grofers.service.business;
+
+import com.upgrad.Grofers.service.dao.CustomerDao;
+import com.upgrad.Grofers.service.entity.CustomerAuthEntity;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SessionJournal writes the customer_auth rows of new logins behind the login requests, group-committing all the
+ * sessions issued within a few milliseconds in one JDBC batch and one transaction instead of one transaction each.
+ * A session is handed back to its login only once its batch has committed, so an access token never reaches a client
+ * before its row is durable: a restart loses only the logins still waiting, and those were never answered.
+ * When the queue of waiting sessions is full a login is rejected with a RejectedExecutionException (503).
+ */
+@Component
+public class SessionJournal {
+
+    @Autowired
+    private CustomerDao customerDao;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Value("${grofers.auth.session-journal.max-delay-ms:5}")
+    private long maxDelayMillis;
+
+    @Value("${grofers.auth.session-journal.max-batch-size:200}")
+    private int maxBatchSize;
+
+    @Value("${grofers.auth.session-journal.queue-capacity:10000}")
+    private int queueCapacity;
+
+    private BlockingQueue<PendingSession> queue;
+
+    private volatile boolean running;
+
+    private Thread writer;
+
+    private Timer flushTimer;
+
+    private DistributionSummary batchSizes;
+
+    private Counter failedBatches;
+
+    @PostConstruct
+    public void start() {
+        queue = new ArrayBlockingQueue<PendingSession>(queueCapacity);
+        Gauge.builder("grofers.session.journal.queue", queue, BlockingQueue::size)
+                .description("Login sessions waiting to be written to customer_auth")
+                .register(meterRegistry);
+        flushTimer = Timer.builder("grofers.session.journal.flush")
+                .description("Time taken to write and commit one batch of login sessions")
+                .register(meterRegistry);
+        batchSizes = DistributionSummary.builder("grofers.session.journal.batch")
+                .description("Login sessions written per batch")
+                .register(meterRegistry);
+        failedBatches = Counter.builder("grofers.session.journal.failed")
+                .description("Batches of login sessions that failed and were retried one session at a time")
+                .register(meterRegistry);
+
+        running = true;
+        writer = new Thread(this::writeLoop, "session-journal");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Stops taking new sessions and writes the ones already queued before the application shuts down.
+     */
+    @PreDestroy
+    public void stop() throws InterruptedException {
+        running = false;
+        writer.join(TimeUnit.SECONDS.toMillis(30));
+    }
+
+    /**
+     * @param customerAuthEntity - The session of a new login.
+     * @return a future completed with the session once its customer_auth row is committed, or failed if the row could
+     * not be written or the journal is full.
+     */
+    public CompletableFuture<CustomerAuthEntity> append(final CustomerAuthEntity customerAuthEntity) {
+        final PendingSession pending = new PendingSession(customerAuthEntity);
+        if (!running || !queue.offer(pending)) {
+            pending.future.completeExceptionally(new RejectedExecutionException("Session journal is full"));
+        }
+        return pending.future;
+    }
+
+    private void writeLoop() {
+        final List<PendingSession> batch = new ArrayList<PendingSession>(maxBatchSize);
+        while (running || !queue.isEmpty()) {
+            try {
+                PendingSession first = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                // Linger briefly so the sessions of concurrent logins share the batch and the commit.
+                final long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(maxDelayMillis);
+                while (batch.size() < maxBatchSize) {
+                    if (queue.drainTo(batch, maxBatchSize - batch.size()) > 0) {
+                        continue;
+                    }
+                    long remaining = deadline - System.nanoTime();
+                    PendingSession next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : null;
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                running = false;
+            }
+            if (!batch.isEmpty()) {
+                flush(batch);
+                batch.clear();
+            }
+        }
+    }
+
+    private void flush(final List<PendingSession> batch) {
+        final List<CustomerAuthEntity> sessions = new ArrayList<CustomerAuthEntity>(batch.size());
+        for (PendingSession pending : batch) {
+            sessions.add(pending.session);
+        }
+        final long startedAt = System.nanoTime();
+        try {
+            customerDao.createCustomerAuths(sessions);
+            flushTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+            batchSizes.record(sessions.size());
+            for (PendingSession pending : batch) {
+                pending.future.complete(pending.session);
+            }
+        } catch (RuntimeException e) {
+            failedBatches.increment();
+            // One bad row rolls the whole batch back; retry row by row so only that login fails.
+            for (PendingSession pending : batch) {
+                try {
+                    customerDao.createCustomerAuths(Collections.singletonList(pending.session));
+                    pending.future.complete(pending.session);
+                } catch (RuntimeException rowFailure) {
+                    pending.future.completeExceptionally(rowFailure);
+                }
+            }
+        }
+    }
+
+    /**
+     * A session waiting to be written, with the future of the login that issued it.
+     */
+    private static final class PendingSession {
+
+        private final CustomerAuthEntity session;
+
+        private final CompletableFuture<CustomerAuthEntity> future = new CompletableFuture<CustomerAuthEntity>();
+
+        private PendingSession(final CustomerAuthEntity session) {
+            this.session = session;
+        }
+    }
+}
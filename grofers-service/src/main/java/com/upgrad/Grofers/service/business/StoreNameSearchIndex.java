@@ -0,0 +1,223 @@
+package com.upgrad.Grofers.service.business;
+
+import com.upgrad.Grofers.service.entity.StoreEntity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * StoreNameSearchIndex is a trigram inverted index over the store names of a catalog snapshot.
+ * Names are normalized to upper case and every three-character sequence of a name points to the stores containing it.
+ * Posting lists hold store ordinals, the position of the store in rating order, so intersecting them keeps the
+ * matches ordered by rating without sorting. Like the snapshot it belongs to, the index is never modified.
+ */
+final class StoreNameSearchIndex {
+
+    static final int EXACT = 0;
+
+    static final int PREFIX = 1;
+
+    static final int WORD_PREFIX = 2;
+
+    static final int CONTAINS = 3;
+
+    private static final int GRAM = 3;
+
+    private static final int[] NO_STORES = new int[0];
+
+    private final List<StoreEntity> storesByRating;
+
+    private final String[] normalizedNames;
+
+    private final Map<Long, int[]> postings;
+
+    private StoreNameSearchIndex(List<StoreEntity> storesByRating, String[] normalizedNames, Map<Long, int[]> postings) {
+        this.storesByRating = storesByRating;
+        this.normalizedNames = normalizedNames;
+        this.postings = postings;
+    }
+
+    /**
+     * @param storesByRating all the stores of the snapshot, ordered by rating.
+     * @return the index over the names of the given stores.
+     */
+    static StoreNameSearchIndex build(List<StoreEntity> storesByRating) {
+        String[] normalizedNames = new String[storesByRating.size()];
+        Map<Long, int[]> postings = new HashMap<>();
+        Map<Long, Integer> sizes = new HashMap<>();
+        Set<Long> grams = new HashSet<>();
+        for (int ordinal = 0; ordinal < normalizedNames.length; ordinal++) {
+            String name = normalize(storesByRating.get(ordinal).getStoreName());
+            normalizedNames[ordinal] = name;
+            grams.clear();
+            addGrams(name, grams);
+            for (Long gram : grams) {
+                int[] posting = postings.get(gram);
+                int size = sizes.getOrDefault(gram, 0);
+                if (posting == null || posting.length == size) {
+                    int[] grown = new int[posting == null ? 4 : posting.length * 2];
+                    if (posting != null) {
+                        System.arraycopy(posting, 0, grown, 0, size);
+                    }
+                    posting = grown;
+                    postings.put(gram, posting);
+                }
+                // Ordinals are visited in increasing order, so every posting list ends up sorted.
+                posting[size] = ordinal;
+                sizes.put(gram, size + 1);
+            }
+        }
+        postings.replaceAll((gram, posting) -> {
+            int size = sizes.get(gram);
+            if (posting.length == size) {
+                return posting;
+            }
+            int[] trimmed = new int[size];
+            System.arraycopy(posting, 0, trimmed, 0, size);
+            return trimmed;
+        });
+        return new StoreNameSearchIndex(storesByRating, normalizedNames, postings);
+    }
+
+    /**
+     * @return all the stores whose name contains the given text ignoring case, ranked by match quality
+     * (exact name, name prefix, word prefix, anywhere in the name) and then by rating.
+     */
+    List<StoreEntity> search(String storeName) {
+        String query = normalize(storeName);
+        List<List<StoreEntity>> ranks = new ArrayList<>(CONTAINS + 1);
+        for (int rank = EXACT; rank <= CONTAINS; rank++) {
+            ranks.add(new ArrayList<>());
+        }
+        if (query.length() < GRAM) {
+            // Too short to have a trigram; a scan over the normalized names is still cheap.
+            for (int ordinal = 0; ordinal < normalizedNames.length; ordinal++) {
+                collect(ordinal, query, ranks);
+            }
+        } else {
+            for (int ordinal : candidates(query)) {
+                collect(ordinal, query, ranks);
+            }
+        }
+        List<StoreEntity> matches = new ArrayList<>();
+        for (List<StoreEntity> rank : ranks) {
+            matches.addAll(rank);
+        }
+        return Collections.unmodifiableList(matches);
+    }
+
+    /**
+     * @return the order of the results of {@link #search(String)} for the given text: match quality, then rating.
+     */
+    static Comparator<StoreEntity> searchOrder(String storeName) {
+        String query = normalize(storeName);
+        return Comparator.<StoreEntity>comparingInt(store -> matchQuality(normalize(store.getStoreName()), query))
+                .thenComparing(CatalogSnapshot.STORES_BY_RATING);
+    }
+
+    static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * @return the match quality of a normalized name for a normalized query, or -1 if the name does not contain it.
+     */
+    static int matchQuality(String name, String query) {
+        if (name.equals(query)) {
+            return EXACT;
+        }
+        if (name.startsWith(query)) {
+            return PREFIX;
+        }
+        int index = name.indexOf(query);
+        if (index < 0) {
+            return -1;
+        }
+        for (; index >= 0; index = name.indexOf(query, index + 1)) {
+            if (!Character.isLetterOrDigit(name.charAt(index - 1))) {
+                return WORD_PREFIX;
+            }
+        }
+        return CONTAINS;
+    }
+
+    private void collect(int ordinal, String query, List<List<StoreEntity>> ranks) {
+        int quality = matchQuality(normalizedNames[ordinal], query);
+        if (quality >= 0) {
+            ranks.get(quality).add(storesByRating.get(ordinal));
+        }
+    }
+
+    /**
+     * Intersects the posting lists of all the trigrams of the query, starting from the shortest one.
+     * The candidates still have to be checked, since having all the trigrams does not mean containing the query.
+     */
+    private int[] candidates(String query) {
+        Set<Long> grams = new HashSet<>();
+        addGrams(query, grams);
+        List<int[]> lists = new ArrayList<>(grams.size());
+        for (Long gram : grams) {
+            int[] posting = postings.get(gram);
+            if (posting == null) {
+                return NO_STORES;
+            }
+            lists.add(posting);
+        }
+        lists.sort(Comparator.comparingInt(posting -> posting.length));
+        int[] result = lists.get(0);
+        for (int i = 1; i < lists.size() && result.length > 0; i++) {
+            result = intersect(result, lists.get(i));
+        }
+        return result;
+    }
+
+    private static int[] intersect(int[] smaller, int[] larger) {
+        int[] result = new int[smaller.length];
+        int size = 0;
+        int from = 0;
+        for (int ordinal : smaller) {
+            int index = binarySearch(larger, from, ordinal);
+            if (index >= 0) {
+                result[size++] = ordinal;
+                from = index + 1;
+            } else {
+                from = -(index + 1);
+            }
+            if (from == larger.length) {
+                break;
+            }
+        }
+        int[] trimmed = new int[size];
+        System.arraycopy(result, 0, trimmed, 0, size);
+        return trimmed;
+    }
+
+    private static int binarySearch(int[] posting, int from, int ordinal) {
+        int low = from;
+        int high = posting.length - 1;
+        while (low <= high) {
+            int middle = (low + high) >>> 1;
+            if (posting[middle] < ordinal) {
+                low = middle + 1;
+            } else if (posting[middle] > ordinal) {
+                high = middle - 1;
+            } else {
+                return middle;
+            }
+        }
+        return -(low + 1);
+    }
+
+    private static void addGrams(String text, Set<Long> grams) {
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            grams.add(((long) text.charAt(i) << 32) | ((long) text.charAt(i + 1) << 16) | text.charAt(i + 2));
+        }
+    }
+}
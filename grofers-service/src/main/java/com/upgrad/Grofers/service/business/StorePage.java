@@ -0,0 +1,29 @@
+package com.upgrad.Grofers.service.business;
+
+import com.upgrad.Grofers.service.entity.StoreEntity;
+
+import java.util.List;
+
+/**
+ * StorePage holds one page of a store listing together with the token to fetch the next page.
+ * The next page token is null on the last page.
+ */
+public class StorePage {
+
+    private final List<StoreEntity> stores;
+
+    private final String nextPageToken;
+
+    public StorePage(List<StoreEntity> stores, String nextPageToken) {
+        this.stores = stores;
+        this.nextPageToken = nextPageToken;
+    }
+
+    public List<StoreEntity> getStores() {
+        return stores;
+    }
+
+    public String getNextPageToken() {
+        return nextPageToken;
+    }
+}
@@ -0,0 +1,49 @@
+package com.upgrad.Grofers.service.business;
+
+import com.upgrad.Grofers.service.entity.StoreEntity;
+import com.upgrad.Grofers.service.exception.InvalidPageTokenException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * StorePageToken encodes the keyset position of a store listing into an opaque page token.
+ * The token carries the sort values of the last store of a page (id, customer rating and store name), so the next page
+ * starts right after that position even if stores were added or removed in between.
+ */
+final class StorePageToken {
+
+    private static final String SEPARATOR = "\n";
+
+    private StorePageToken() {
+    }
+
+    /**
+     * @param listing - The listing the token belongs to, a token is only accepted by the listing that issued it.
+     * @param last    - The last store of the current page.
+     * @return the opaque page token.
+     */
+    static String encode(final String listing, final StoreEntity last) {
+        String position = listing + SEPARATOR + last.getId() + SEPARATOR + last.getCustomerRating() + SEPARATOR + last.getStoreName();
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @return a probe store holding the sort values of the position encoded in the token.
+     */
+    static StoreEntity decode(final String listing, final String token) throws InvalidPageTokenException {
+        try {
+            String[] position = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8).split(SEPARATOR, 4);
+            if (position.length != 4 || !position[0].equals(listing)) {
+                throw new InvalidPageTokenException("PGN-001", "Invalid page token");
+            }
+            StoreEntity probe = new StoreEntity();
+            probe.setId(Integer.valueOf(position[1]));
+            probe.setCustomerRating(Double.valueOf(position[2]));
+            probe.setStoreName(position[3]);
+            return probe;
+        } catch (IllegalArgumentException e) {
+            throw new InvalidPageTokenException("PGN-001", "Invalid page token");
+        }
+    }
+}
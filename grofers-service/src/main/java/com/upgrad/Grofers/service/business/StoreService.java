@@ -3,7 +3,9 @@ package com.upgrad.Grofers.service.business;
 
 
 import com.upgrad.Grofers.service.entity.StoreEntity;
+import com.upgrad.Grofers.service.entity.StoreSummaryEntity;
 import com.upgrad.Grofers.service.exception.CategoryNotFoundException;
+import com.upgrad.Grofers.service.exception.InvalidPageTokenException;
 import com.upgrad.Grofers.service.exception.StoreNotFoundException;
 
 import java.util.List;
@@ -16,9 +18,21 @@ public interface StoreService {
 
     StoreEntity StoreByUUID(String StoreId) throws StoreNotFoundException;
 
+    StoreEntity StoreDetailsByUUID(String StoreId) throws StoreNotFoundException;
+
     List<StoreEntity> StoresByName(String StoreName) throws StoreNotFoundException;
 
     List<StoreEntity> StoresByRating();
 
     List<StoreEntity> StoreByCategory(String categoryId) throws CategoryNotFoundException;
+
+    StorePage StoresByRating(String pageToken, Integer limit) throws InvalidPageTokenException;
+
+    StorePage StoresByName(String StoreName, String pageToken, Integer limit)
+            throws StoreNotFoundException, InvalidPageTokenException;
+
+    StorePage StoreByCategory(String categoryId, String pageToken, Integer limit)
+            throws CategoryNotFoundException, InvalidPageTokenException;
+
+    List<StoreSummaryEntity> StoreSummaries(List<StoreEntity> StoreEntityList);
 }
@@ -2,39 +2,65 @@ package com.upgrad.Grofers.service.business;
 
 
 
-import com.upgrad.Grofers.service.dao.CategoryDao;
-import com.upgrad.Grofers.service.dao.StoreDao;
 import com.upgrad.Grofers.service.entity.StoreEntity;
+import com.upgrad.Grofers.service.entity.StoreSummaryEntity;
 import com.upgrad.Grofers.service.exception.CategoryNotFoundException;
+import com.upgrad.Grofers.service.exception.InvalidPageTokenException;
 import com.upgrad.Grofers.service.exception.StoreNotFoundException;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.List;
 
+/**
+ * StoreService reads are served from the catalog snapshot and do not touch the database.
+ */
 @Service
 public class StoreServiceImpl implements StoreService {
 
     @Autowired
-    private StoreDao StoreDao;
+    private CatalogSnapshotService catalogSnapshotService;
 
-    @Autowired
-    private CategoryDao categoryDao;
+    @Value("${grofers.store.page-size:20}")
+    private int defaultPageSize;
+
+    @Value("${grofers.store.max-page-size:100}")
+    private int maxPageSize;
 
     /**
      * The method implements the business logic for getting Store details by Store uuid.
      */
     @Override
     public StoreEntity StoreByUUID(String StoreId) throws StoreNotFoundException {
-        return StoreDao.storeByUUID(StoreId);
+        return catalogSnapshotService.snapshot().storeByUuid(StoreId);
+    }
+
+    /**
+     * The method implements the business logic for getting Store details, with address, state and categories
+     * already fetched, by Store uuid.
+     */
+    @Override
+    public StoreEntity StoreDetailsByUUID(String StoreId) throws StoreNotFoundException {
+        if (StoreId == null || StoreId.isEmpty()) {
+            throw new StoreNotFoundException("RNF-002", "Store id field should not be empty");
+        }
+        StoreEntity storeEntity = catalogSnapshotService.snapshot().storeByUuid(StoreId);
+        if (storeEntity == null) {
+            throw new StoreNotFoundException("RNF-001", "No Store by this id");
+        }
+        return storeEntity;
     }
 
     /**
-     * The method implements the business logic for getting Stores by Store name.
+     * The method implements the business logic for getting Stores by Store name, ranked by match quality and rating.
      */
     @Override
     public List<StoreEntity> StoresByName(String StoreName) throws StoreNotFoundException {
-        return StoreDao.storeByName(StoreName);
+        return catalogSnapshotService.snapshot().storesByNameContaining(StoreName);
     }
 
     /**
@@ -42,7 +68,7 @@ public class StoreServiceImpl implements StoreService {
      */
     @Override
     public List<StoreEntity> StoresByRating() {
-        return StoreDao.storeByRating();
+        return catalogSnapshotService.snapshot().storesByRating();
     }
 
     /**
@@ -50,8 +76,82 @@ public class StoreServiceImpl implements StoreService {
      */
     @Override
     public List<StoreEntity> StoreByCategory(String categoryId) throws CategoryNotFoundException {
-        return StoreDao.storeByCategory(categoryId);
+        if (categoryId == null || categoryId.isEmpty()) {
+            throw new CategoryNotFoundException("CNF-001", "Category id field should not be empty");
+        }
+        CatalogSnapshot snapshot = catalogSnapshotService.snapshot();
+        if (snapshot.categoryByUuid(categoryId) == null) {
+            throw new CategoryNotFoundException("CNF-002", "No category by this id");
+        }
+        return snapshot.storesByCategoryUuid(categoryId);
+
+    }
+
+    /**
+     * The method implements the business logic for getting one page of all Stores ordered by their rating.
+     */
+    @Override
+    public StorePage StoresByRating(String pageToken, Integer limit) throws InvalidPageTokenException {
+        return page(catalogSnapshotService.snapshot().storesByRating(), CatalogSnapshot.STORES_BY_RATING,
+                "rating", pageToken, limit);
+    }
 
+    /**
+     * The method implements the business logic for getting one page of the Stores by Store name, ranked by match
+     * quality and rating. The match quality of the page token position is derived from the store name it carries.
+     */
+    @Override
+    public StorePage StoresByName(String StoreName, String pageToken, Integer limit)
+            throws StoreNotFoundException, InvalidPageTokenException {
+        return page(catalogSnapshotService.snapshot().storesByNameContaining(StoreName),
+                StoreNameSearchIndex.searchOrder(StoreName), "name/" + StoreName, pageToken, limit);
+    }
+
+    /**
+     * The method implements the business logic for getting one page of the Stores by their category, ordered by name.
+     */
+    @Override
+    public StorePage StoreByCategory(String categoryId, String pageToken, Integer limit)
+            throws CategoryNotFoundException, InvalidPageTokenException {
+        return page(StoreByCategory(categoryId), CatalogSnapshot.STORES_BY_NAME,
+                "category/" + categoryId, pageToken, limit);
+    }
+
+    /**
+     * The method implements the business logic for getting the listing summaries of Stores, in the order of the Stores.
+     * A summary carries the Store's address, state and joined category names, so a listing needs nothing else.
+     */
+    @Override
+    public List<StoreSummaryEntity> StoreSummaries(List<StoreEntity> StoreEntityList) {
+        CatalogSnapshot snapshot = catalogSnapshotService.snapshot();
+        List<StoreSummaryEntity> storeSummaries = new ArrayList<StoreSummaryEntity>(StoreEntityList.size());
+        for (StoreEntity StoreEntity : StoreEntityList) {
+            storeSummaries.add(snapshot.storeSummary(StoreEntity));
+        }
+        return storeSummaries;
+    }
+
+    /**
+     * Returns the stores following the page token position in a sorted listing. The position is found by binary search
+     * on the listing's sort key (with the store id as tie-breaker), so the work per page does not depend on how deep
+     * the page is.
+     */
+    private StorePage page(final List<StoreEntity> sorted, final Comparator<StoreEntity> order, final String listing,
+                           final String pageToken, final Integer limit)
+            throws InvalidPageTokenException {
+        final int pageSize = limit == null || limit <= 0 ? defaultPageSize : Math.min(limit, maxPageSize);
+        int start = 0;
+        if (pageToken != null && !pageToken.isEmpty()) {
+            int index = Collections.binarySearch(sorted, StorePageToken.decode(listing, pageToken), order);
+            start = index >= 0 ? index + 1 : -(index + 1);
+        }
+        final int end = Math.min(sorted.size(), start + pageSize);
+        List<StoreEntity> stores = new ArrayList<StoreEntity>(sorted.subList(Math.min(start, end), end));
+        String nextPageToken = null;
+        if (end < sorted.size()) {
+            nextPageToken = StorePageToken.encode(listing, stores.get(stores.size() - 1));
+        }
+        return new StorePage(Collections.unmodifiableList(stores), nextPageToken);
     }
 
 }
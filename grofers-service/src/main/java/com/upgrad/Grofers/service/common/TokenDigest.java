@@ -0,0 +1,35 @@
+package com.upgrad.Grofers.service.common;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * TokenDigest computes the fixed-width SHA-256 digest under which access tokens are indexed in customer_auth.
+ * The digest of a token is the SHA-256 of its UTF-8 bytes, the same value as sha256(convert_to(access_token, 'UTF8'))
+ * or digest(access_token, 'sha256') in PostgreSQL on a UTF-8 database.
+ */
+public final class TokenDigest {
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new UnexpectedException(GenericErrorCode.GEN_001, e);
+        }
+    });
+
+    private TokenDigest() {
+    }
+
+    /**
+     * @param token - The access token.
+     * @return the 32-byte SHA-256 digest of the token, or null for a null token.
+     */
+    public static byte[] sha256(final String token) {
+        if (token == null) {
+            return null;
+        }
+        return SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,90 @@
+package com.upgrad.Grofers.service.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.annotation.PreDestroy;
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Replaces the single application data source by one routing read-only transactions (the store, category, item and
+ * state reads, including the catalog reload) to a read replica and everything else to the primary.
+ * Enabled with grofers.datasource.replica.enabled; the primary keeps its spring.datasource settings and the replica
+ * is configured under grofers.datasource.replica. For local runs a second Postgres instance, or a second database
+ * holding a copy of the schema, can stand in for the replica.
+ */
+@Configuration
+@ConditionalOnProperty(name = "grofers.datasource.replica.enabled", havingValue = "true")
+public class ReplicaDataSourceConfiguration {
+
+    @Value("${grofers.datasource.replica.url}")
+    private String replicaUrl;
+
+    @Value("${grofers.datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${grofers.datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${grofers.datasource.replica.maximum-pool-size:10}")
+    private int replicaMaximumPoolSize;
+
+    @Value("${grofers.datasource.replica.max-lag-ms:5000}")
+    private long maxLagMillis;
+
+    private HikariDataSource primaryPool;
+
+    private HikariDataSource replicaPool;
+
+    @Bean
+    public ReplicationLagGuard replicationLagGuard(DataSourceProperties dataSourceProperties, MeterRegistry meterRegistry) {
+        replicaPool = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class)
+                .url(replicaUrl).username(replicaUsername).password(replicaPassword).build();
+        replicaPool.setPoolName("replica");
+        replicaPool.setMaximumPoolSize(replicaMaximumPoolSize);
+        replicaPool.setReadOnly(true);
+
+        ReplicationLagGuard replicationLagGuard = new ReplicationLagGuard(replicaPool, maxLagMillis);
+        Gauge.builder("grofers.datasource.replica.lag", replicationLagGuard, ReplicationLagGuard::getLagMillis)
+                .description("Replication lag of the read replica in milliseconds, -1 when unknown")
+                .register(meterRegistry);
+        return replicationLagGuard;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(DataSourceProperties dataSourceProperties, ReplicationLagGuard replicationLagGuard) {
+        primaryPool = dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        primaryPool.setPoolName("primary");
+
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(ReplicaRoutingDataSource.PRIMARY, primaryPool);
+        targets.put(ReplicaRoutingDataSource.REPLICA, replicaPool);
+        ReplicaRoutingDataSource routingDataSource = new ReplicaRoutingDataSource(replicationLagGuard);
+        routingDataSource.setTargetDataSources(targets);
+        routingDataSource.setDefaultTargetDataSource(primaryPool);
+        routingDataSource.afterPropertiesSet();
+        // Connections taken outside of a transaction, like the ones reading the connection defaults at startup, go to the primary.
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @PreDestroy
+    public void close() {
+        if (primaryPool != null) {
+            primaryPool.close();
+        }
+        if (replicaPool != null) {
+            replicaPool.close();
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.upgrad.Grofers.service.config;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * ReplicaRoutingDataSource sends the connections of read-only transactions to the read replica, as long as the
+ * replication lag guard allows it, and every other connection to the primary.
+ * The transaction's read-only flag is only known once the transaction has begun, so the data source has to be used
+ * behind a LazyConnectionDataSourceProxy, which defers taking the connection until the first statement.
+ */
+class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    static final String REPLICA = "replica";
+
+    private final ReplicationLagGuard replicationLagGuard;
+
+    ReplicaRoutingDataSource(final ReplicationLagGuard replicationLagGuard) {
+        this.replicationLagGuard = replicationLagGuard;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        if (TransactionSynchronizationManager.isCurrentTransactionReadOnly() && replicationLagGuard.isReplicaUsable()) {
+            return REPLICA;
+        }
+        return PRIMARY;
+    }
+}
@@ -0,0 +1,59 @@
+package com.upgrad.Grofers.service.config;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * ReplicationLagGuard measures how far the read replica is behind the primary and tells the routing data source
+ * whether read-only transactions may go to the replica. The replica is used only while its last measured lag is
+ * within the limit; a replica that cannot be reached or whose lag is unknown is not used, so reads fall back to the
+ * primary until the next check succeeds.
+ */
+public class ReplicationLagGuard {
+
+    /**
+     * Milliseconds since the last replayed transaction, or 0 when the replica has replayed everything it received
+     * or is not a standby at all (a plain second instance standing in for a replica); -1 when the lag is unknown.
+     */
+    private static final String LAG_QUERY = "select case when not pg_is_in_recovery() then 0 "
+            + "when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0 "
+            + "else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()) * 1000, -1) end";
+
+    private final JdbcTemplate replica;
+
+    private final long maxLagMillis;
+
+    private volatile double lagMillis = -1;
+
+    public ReplicationLagGuard(final DataSource replica, final long maxLagMillis) {
+        this.replica = new JdbcTemplate(replica);
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    /**
+     * @return true if read-only transactions may be routed to the replica.
+     */
+    public boolean isReplicaUsable() {
+        final double lag = lagMillis;
+        return lag >= 0 && lag <= maxLagMillis;
+    }
+
+    /**
+     * @return the replication lag measured by the last check in milliseconds, or -1 if it is unknown.
+     */
+    public double getLagMillis() {
+        return lagMillis;
+    }
+
+    @Scheduled(fixedDelayString = "${grofers.datasource.replica.lag-check-interval-ms:1000}")
+    public void check() {
+        try {
+            Double lag = replica.queryForObject(LAG_QUERY, Double.class);
+            lagMillis = lag == null ? -1 : lag;
+        } catch (RuntimeException e) {
+            lagMillis = -1;
+        }
+    }
+}
@@ -69,6 +69,7 @@ public class AddressDaoImpl implements AddressDao{
     }
 
     @Override
+    @Transactional(readOnly = true)
     public StateEntity getStateByUUID(String uuid) {
         try {
             return entityManager.createNamedQuery("getStateByUUID", StateEntity.class).setParameter("uuid",uuid).getSingleResult();
@@ -0,0 +1,21 @@
+package com.upgrad.Grofers.service.dao;
+
+import com.upgrad.Grofers.service.entity.StateEntity;
+import com.upgrad.Grofers.service.entity.StoreSummaryEntity;
+
+import java.util.List;
+
+/*
+ * This CatalogDao interface gives the list of all the dao methods that exist in the catalog dao implementation class.
+ * The catalog snapshot service will be calling the dao methods by this interface to load the complete catalog.
+ */
+public interface CatalogDao {
+
+    List<StateEntity> getAllStates();
+    List<StoreRow> getAllStores();
+    List<CategoryRow> getAllCategories();
+    List<ItemRow> getAllItems();
+    List<Object[]> getStoreCategoryIds();
+    List<Object[]> getCategoryItemIds();
+    List<StoreSummaryEntity> getAllStoreSummaries();
+}
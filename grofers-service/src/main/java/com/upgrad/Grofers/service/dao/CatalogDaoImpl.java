@@ -0,0 +1,89 @@
+package com.upgrad.Grofers.service.dao;
+
+import com.upgrad.Grofers.service.entity.StateEntity;
+import com.upgrad.Grofers.service.entity.StoreSummaryEntity;
+import org.hibernate.annotations.QueryHints;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.CacheRetrieveMode;
+import javax.persistence.CacheStoreMode;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.TypedQuery;
+import java.util.List;
+
+/**
+ * CatalogDao class provides the database access for loading the complete catalog into the catalog snapshot.
+ * Every method reads a whole table (or join table) in one statement, so a full catalog load costs a constant number of queries.
+ */
+@Repository
+@Transactional(readOnly = true)
+public class CatalogDaoImpl implements CatalogDao {
+
+    //When a container of the application(be it a Java EE container or any other custom container like Spring) manages the lifecycle of the Entity Manager, the Entity Manager is said to be Container Managed. The most common way of acquiring a Container Managed EntityManager is to use @PersistenceContext annotation on an EntityManager attribute.
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * States stay entities so the rows read refresh the state cache region; they are loaded read-only, so the
+     * persistence context keeps no snapshot of them for dirty checking.
+     */
+    @Override
+    public List<StateEntity> getAllStates() {
+        return bypassCache(entityManager.createNamedQuery("getAllStates", StateEntity.class))
+                .setHint(QueryHints.HINT_READONLY, true).getResultList();
+    }
+
+    /**
+     * @return - the stores joined with their address, as rows that are not managed by the persistence context.
+     */
+    @Override
+    public List<StoreRow> getAllStores() {
+        return entityManager.createNamedQuery("allStoreRows", StoreRow.class).getResultList();
+    }
+
+    @Override
+    public List<CategoryRow> getAllCategories() {
+        return entityManager.createNamedQuery("allCategoryRows", CategoryRow.class).getResultList();
+    }
+
+    @Override
+    public List<ItemRow> getAllItems() {
+        return entityManager.createNamedQuery("allItemRows", ItemRow.class).getResultList();
+    }
+
+    /**
+     * @return - pairs of [store id, category id] from the stores_category join table.
+     */
+    @Override
+    public List<Object[]> getStoreCategoryIds() {
+        return entityManager.createNamedQuery("allStoreCategoryIds", Object[].class).getResultList();
+    }
+
+    /**
+     * @return - pairs of [category id, item id] from the category_item join table.
+     */
+    @Override
+    public List<Object[]> getCategoryItemIds() {
+        return entityManager.createNamedQuery("allCategoryItemIds", Object[].class).getResultList();
+    }
+
+    /**
+     * @return - the store_summary read model rows of all the stores, in one scan of the table.
+     */
+    @Override
+    public List<StoreSummaryEntity> getAllStoreSummaries() {
+        return entityManager.createNamedQuery("allStoreSummaries", StoreSummaryEntity.class).getResultList();
+    }
+
+    /**
+     * The catalog load has to see changes made outside of this application, so reference data is read from the database
+     * even though it is second-level cached; the rows read are written back to the cache.
+     */
+    private static <T> TypedQuery<T> bypassCache(TypedQuery<T> query) {
+        return query.setHint("org.hibernate.cacheable", false)
+                .setHint("javax.persistence.cache.retrieveMode", CacheRetrieveMode.BYPASS)
+                .setHint("javax.persistence.cache.storeMode", CacheStoreMode.REFRESH);
+    }
+}
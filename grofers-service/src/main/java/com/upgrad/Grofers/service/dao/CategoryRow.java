@@ -0,0 +1,32 @@
+package com.upgrad.Grofers.service.dao;
+
+/**
+ * CategoryRow is a read-only row of the category table, built by a JPQL constructor expression instead of loading a
+ * managed CategoryEntity.
+ */
+public final class CategoryRow {
+
+    private final Integer id;
+
+    private final String uuid;
+
+    private final String categoryName;
+
+    public CategoryRow(Integer id, String uuid, String categoryName) {
+        this.id = id;
+        this.uuid = uuid;
+        this.categoryName = categoryName;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getCategoryName() {
+        return categoryName;
+    }
+}
@@ -4,6 +4,9 @@ package com.upgrad.Grofers.service.dao;
 import com.upgrad.Grofers.service.entity.CustomerAuthEntity;
 import com.upgrad.Grofers.service.entity.CustomerEntity;
 
+import java.time.ZonedDateTime;
+import java.util.List;
+
 /*
  * This CustomerDao interface gives the list of all the dao methods that exist in the customer dao implementation class.
  * Service class will be calling the dao methods by this interface.
@@ -12,9 +15,17 @@ public interface CustomerDao {
 
     CustomerEntity saveCustomer(CustomerEntity customerEntity);
     CustomerEntity getCustomerByContactNumber(String customername);
+    CustomerEntity getCustomerById(Integer id);
+    CustomerEntity getCustomerByUuid(String uuid);
     CustomerAuthEntity createCustomerAuth(CustomerAuthEntity customerAuthEntity);
+    void createCustomerAuths(List<CustomerAuthEntity> customerAuthEntities);
     CustomerAuthEntity getCustomerAuthByAccesstoken(String accesstoken);
+    List<Object[]> getRevokedAccessTokens(ZonedDateTime since, ZonedDateTime now);
     CustomerAuthEntity updateCustomerAuth(CustomerAuthEntity customerAuthEntity);
+    int deleteExpiredCustomerAuths(ZonedDateTime expiredBefore, int batchSize);
+    int deleteLoggedOutCustomerAuths(ZonedDateTime loggedOutBefore, int batchSize);
+    int maintainCustomerAuthPartitions();
+    long countDefaultPartitionCustomerAuths();
     CustomerEntity updateCustomer(CustomerEntity customerEntity);
 
 }
@@ -1,14 +1,21 @@
 package com.upgrad.Grofers.service.dao;
 
 
+import com.upgrad.Grofers.service.common.TokenDigest;
 import com.upgrad.Grofers.service.entity.CustomerAuthEntity;
 import com.upgrad.Grofers.service.entity.CustomerEntity;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
 import javax.persistence.EntityManager;
 import javax.persistence.NoResultException;
 import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 
 /**
@@ -22,6 +29,15 @@ public class CustomerDaoImpl implements CustomerDao {
     @PersistenceContext
     private EntityManager entityManager;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private static final String INSERT_CUSTOMER_AUTH = "insert into customer_auth (id, uuid, customer_id, access_token, "
+            + "access_token_digest, login_at, logout_at, expires_at) values (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    //customer_auth_id_seq hands out blocks of 50 ids (V5), the column default would use up a whole block for every session.
+    private static final String RESERVE_CUSTOMER_AUTH_IDS = "select id from reserve_ids('customer_auth_id_seq', ?) order by ordinal";
+
 
     public CustomerEntity saveCustomer(CustomerEntity customerEntity) {
         entityManager.persist(customerEntity);
@@ -44,27 +60,120 @@ public class CustomerDaoImpl implements CustomerDao {
         }
     }
 
+    public CustomerEntity getCustomerByUuid(String uuid) {
+        try {
+            return entityManager.createNamedQuery("customerByUuid", CustomerEntity.class).setParameter("uuid", uuid).getSingleResult();
+        } catch (NoResultException nre) {
+            return null;
+        }
+    }
+
     public CustomerAuthEntity createCustomerAuth(CustomerAuthEntity customerAuthEntity) {
         entityManager.persist(customerAuthEntity);
         return customerAuthEntity;
     }
 
+    /**
+     * Inserts the sessions as one JDBC batch in the current transaction. Sessions without an id get one from a block
+     * reserved by reserve_ids (V7) for the whole batch; a session retried after a failed batch keeps the id it got.
+     */
+    public void createCustomerAuths(final List<CustomerAuthEntity> customerAuthEntities) {
+        final List<CustomerAuthEntity> withoutId = new ArrayList<>();
+        for (CustomerAuthEntity customerAuth : customerAuthEntities) {
+            if (customerAuth.getId() == 0) {
+                withoutId.add(customerAuth);
+            }
+        }
+        if (!withoutId.isEmpty()) {
+            final List<Integer> ids = jdbcTemplate.queryForList(RESERVE_CUSTOMER_AUTH_IDS, Integer.class, (long) withoutId.size());
+            for (int i = 0; i < withoutId.size(); i++) {
+                withoutId.get(i).setId(ids.get(i));
+            }
+        }
+        jdbcTemplate.batchUpdate(INSERT_CUSTOMER_AUTH, customerAuthEntities, customerAuthEntities.size(),
+                (ps, customerAuth) -> {
+                    ps.setInt(1, (int) customerAuth.getId());
+                    ps.setString(2, customerAuth.getUuid());
+                    ps.setInt(3, customerAuth.getCustomer().getId());
+                    ps.setString(4, customerAuth.getAccessToken());
+                    ps.setBytes(5, customerAuth.getAccessTokenDigest());
+                    ps.setTimestamp(6, timestamp(customerAuth.getLoginAt()));
+                    ps.setTimestamp(7, timestamp(customerAuth.getLogoutAt()));
+                    ps.setTimestamp(8, timestamp(customerAuth.getExpiresAt()));
+                });
+    }
+
 
+    /**
+     * Looks the access token up by its SHA-256 digest, which is uniquely indexed, instead of by the full token text.
+     */
     public CustomerAuthEntity getCustomerAuthByAccesstoken(String accesstoken) {
         try {
-            return entityManager.createNamedQuery("customerAuthByAccesstoken", CustomerAuthEntity.class).setParameter("accesstoken", accesstoken).getSingleResult();
+            return entityManager.createNamedQuery("customerAuthByAccesstoken", CustomerAuthEntity.class).setParameter("accessTokenDigest", TokenDigest.sha256(accesstoken)).getSingleResult();
         } catch (NoResultException nre) {
             return null;
         }
     }
 
 
+    /**
+     * @return pairs of [access token, expires at] of the sessions logged out since the given time and not yet expired.
+     */
+    public List<Object[]> getRevokedAccessTokens(ZonedDateTime since, ZonedDateTime now) {
+        return entityManager.createNamedQuery("revokedAccessTokens", Object[].class).setParameter("since", since)
+                .setParameter("now", now).getResultList();
+    }
+
     public CustomerAuthEntity updateCustomerAuth(CustomerAuthEntity customerAuthEntity) {
         return entityManager.merge(customerAuthEntity);
     }
 
+    /**
+     * Deletes at most batchSize sessions that expired before the given time, in a transaction of its own.
+     *
+     * @return the number of sessions deleted.
+     */
+    public int deleteExpiredCustomerAuths(ZonedDateTime expiredBefore, int batchSize) {
+        return entityManager.createNamedQuery("deleteExpiredCustomerAuth").setParameter("expiredBefore", timestamp(expiredBefore))
+                .setParameter("batchSize", batchSize).executeUpdate();
+    }
+
+    /**
+     * Deletes at most batchSize sessions that were logged out before the given time, in a transaction of its own.
+     *
+     * @return the number of sessions deleted.
+     */
+    public int deleteLoggedOutCustomerAuths(ZonedDateTime loggedOutBefore, int batchSize) {
+        return entityManager.createNamedQuery("deleteLoggedOutCustomerAuth").setParameter("loggedOutBefore", timestamp(loggedOutBefore))
+                .setParameter("batchSize", batchSize).executeUpdate();
+    }
+
+    /**
+     * Creates the upcoming daily partitions of a partitioned customer_auth table and drops the expired ones,
+     * see customer_auth_partitioned.sql in grofers-db.
+     *
+     * @return the number of partitions dropped.
+     */
+    public int maintainCustomerAuthPartitions() {
+        return ((Number) entityManager.createNativeQuery("select customer_auth_maintain_partitions()").getSingleResult()).intValue();
+    }
+
+    /**
+     * Counts the sessions of a partitioned customer_auth table that fell outside its daily partitions into
+     * customer_auth_default, see customer_auth_partitioned.sql in grofers-db.
+     *
+     * @return the number of sessions in the default partition.
+     */
+    public long countDefaultPartitionCustomerAuths() {
+        return ((Number) entityManager.createNativeQuery("select count(*) from customer_auth_default").getSingleResult()).longValue();
+    }
+
     public CustomerEntity updateCustomer(CustomerEntity customerEntity) {
         return entityManager.merge(customerEntity);
     }
 
+    private static Timestamp timestamp(ZonedDateTime dateTime) {
+        return dateTime == null ? null : Timestamp.from(dateTime.toInstant());
+    }
+
 }
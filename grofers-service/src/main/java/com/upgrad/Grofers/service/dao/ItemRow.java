@@ -0,0 +1,46 @@
+package com.upgrad.Grofers.service.dao;
+
+/**
+ * ItemRow is a read-only row of the item table, built by a JPQL constructor expression instead of loading a managed
+ * ItemEntity. The store is referenced by its id only; the store id is null for an item without a store.
+ */
+public final class ItemRow {
+
+    private final Integer id;
+
+    private final String uuid;
+
+    private final String itemName;
+
+    private final Integer price;
+
+    private final Integer storeId;
+
+    public ItemRow(Integer id, String uuid, String itemName, Integer price, Integer storeId) {
+        this.id = id;
+        this.uuid = uuid;
+        this.itemName = itemName;
+        this.price = price;
+        this.storeId = storeId;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getItemName() {
+        return itemName;
+    }
+
+    public Integer getPrice() {
+        return price;
+    }
+
+    public Integer getStoreId() {
+        return storeId;
+    }
+}
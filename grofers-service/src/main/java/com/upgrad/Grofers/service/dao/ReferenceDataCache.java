@@ -0,0 +1,46 @@
+package com.upgrad.Grofers.service.dao;
+
+import com.upgrad.Grofers.service.entity.StateEntity;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.jpa.HibernateMetrics;
+import org.hibernate.SessionFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.persistence.EntityManagerFactory;
+
+/**
+ * ReferenceDataCache controls the Hibernate second-level cache regions holding reference data: the state entity region
+ * and the reference-queries query region. Catalog reads are served by the catalog snapshot, so these regions only serve
+ * the state lookups of the address endpoints (getStateByUUID, and the state of every address loaded).
+ * Changes made through JPA keep these regions up to date by themselves; changes made directly in the database are
+ * only noticed by the catalog reload, which calls {@link #evict()} when it finds the catalog changed.
+ */
+@Component
+public class ReferenceDataCache {
+
+    private static final String QUERY_REGION = "reference-queries";
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @PostConstruct
+    public void registerMetrics() {
+        // Hit, miss and put counts per cache region, used to size the regions in ehcache.xml. They are only published
+        // when Hibernate statistics are generated, as in the dev profile of grofers-api.
+        new HibernateMetrics(entityManagerFactory, "entityManagerFactory", Tags.empty()).bindTo(meterRegistry);
+    }
+
+    /**
+     * This method evicts all the cached reference data, so the next reads go to the database.
+     */
+    public void evict() {
+        entityManagerFactory.getCache().evict(StateEntity.class);
+        entityManagerFactory.unwrap(SessionFactory.class).getCache().evictQueryRegion(QUERY_REGION);
+    }
+}
@@ -0,0 +1,98 @@
+package com.upgrad.Grofers.service.dao;
+
+/**
+ * StoreRow is a read-only row of the stores table joined with the store's address, built by a JPQL constructor
+ * expression. Unlike a StoreEntity it is not managed by the persistence context, so loading it costs no entity
+ * snapshot for dirty checking and no flush-time work.
+ */
+public final class StoreRow {
+
+    private final Integer id;
+
+    private final String uuid;
+
+    private final String storeName;
+
+    private final Double customerRating;
+
+    private final Integer numberCustomersRated;
+
+    private final Integer addressId;
+
+    private final String addressUuid;
+
+    private final String flatBuilNo;
+
+    private final String locality;
+
+    private final String city;
+
+    private final String pincode;
+
+    private final Integer stateId;
+
+    public StoreRow(Integer id, String uuid, String storeName, Double customerRating, Integer numberCustomersRated,
+                    Integer addressId, String addressUuid, String flatBuilNo, String locality, String city,
+                    String pincode, Integer stateId) {
+        this.id = id;
+        this.uuid = uuid;
+        this.storeName = storeName;
+        this.customerRating = customerRating;
+        this.numberCustomersRated = numberCustomersRated;
+        this.addressId = addressId;
+        this.addressUuid = addressUuid;
+        this.flatBuilNo = flatBuilNo;
+        this.locality = locality;
+        this.city = city;
+        this.pincode = pincode;
+        this.stateId = stateId;
+    }
+
+    public Integer getId() {
+        return id;
+    }
+
+    public String getUuid() {
+        return uuid;
+    }
+
+    public String getStoreName() {
+        return storeName;
+    }
+
+    public Double getCustomerRating() {
+        return customerRating;
+    }
+
+    public Integer getNumberCustomersRated() {
+        return numberCustomersRated;
+    }
+
+    public Integer getAddressId() {
+        return addressId;
+    }
+
+    public String getAddressUuid() {
+        return addressUuid;
+    }
+
+    public String getFlatBuilNo() {
+        return flatBuilNo;
+    }
+
+    public String getLocality() {
+        return locality;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getPincode() {
+        return pincode;
+    }
+
+    public Integer getStateId() {
+        return stateId;
+    }
+}
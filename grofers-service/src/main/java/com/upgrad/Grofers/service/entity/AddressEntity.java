@@ -19,7 +19,8 @@ import java.io.Serializable;
 public class AddressEntity implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "address_id_seq")
+    @SequenceGenerator(name = "address_id_seq", sequenceName = "address_id_seq", allocationSize = 50)
     private Integer id;
 
     @Column(name = "UUID", length = 64, nullable = false)
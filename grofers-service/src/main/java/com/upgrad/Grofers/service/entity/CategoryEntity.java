@@ -14,15 +14,15 @@ import java.util.List;
 @Entity
 @Table(name = "category")
 @NamedQueries({
-        @NamedQuery(name = "getAllCategoriesOrderedByName", query = "select c from CategoryEntity c order by c.categoryName ASC"),
-        @NamedQuery(name = "getCategoryById", query = "select c from CategoryEntity c where " +
-                "c.uuid = :uuid"),
-        @NamedQuery(name = "getCategoriesByStore", query = "select c from CategoryEntity c inner join c.stores s where s.uuid = :uuid order by c.categoryName")
+        @NamedQuery(name = "allCategoryItemIds", query = "select c.id, i.id from CategoryEntity c inner join c.items i"),
+        @NamedQuery(name = "allCategoryRows", query = "select new com.upgrad.Grofers.service.dao.CategoryRow(" +
+                "c.id, c.uuid, c.categoryName) from CategoryEntity c")
 })
 public class CategoryEntity implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_id_seq")
+    @SequenceGenerator(name = "category_id_seq", sequenceName = "category_id_seq", allocationSize = 50)
     private Integer id;
 
     @Column(name = "UUID", length = 64, nullable = false)
@@ -16,7 +16,8 @@ import java.io.Serializable;
 public class CategoryItemEntity implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "category_item_id_seq")
+    @SequenceGenerator(name = "category_item_id_seq", sequenceName = "category_item_id_seq", allocationSize = 50)
     private Integer id;
 
     @ManyToOne
@@ -20,7 +20,8 @@ public class CustomerAddressEntity implements Serializable {
 
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_address_id_seq")
+    @SequenceGenerator(name = "customer_address_id_seq", sequenceName = "customer_address_id_seq", allocationSize = 50)
     private Integer id;
 
     @ManyToOne
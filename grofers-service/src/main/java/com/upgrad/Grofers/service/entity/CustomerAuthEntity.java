@@ -1,5 +1,7 @@
 package com.upgrad.Grofers.service.entity;
 
+import com.upgrad.Grofers.service.common.TokenDigest;
+
 import javax.persistence.*;
 import java.io.Serializable;
 import java.time.ZonedDateTime;
@@ -12,13 +14,22 @@ import java.time.ZonedDateTime;
 @Table(name = "customer_auth")
 @NamedQueries({
         @NamedQuery(name = "customerByuuid", query = "select c from CustomerAuthEntity c where c.uuid = :uuid"),
-        @NamedQuery(name = "customerAuthByAccesstoken", query = "select c from CustomerAuthEntity c where c.accessToken = :accesstoken")
+        @NamedQuery(name = "customerAuthByAccesstoken", query = "select c from CustomerAuthEntity c where c.accessTokenDigest = :accessTokenDigest"),
+        @NamedQuery(name = "revokedAccessTokens", query = "select c.accessToken, c.expiresAt from CustomerAuthEntity c " +
+                "where c.logoutAt >= :since and c.expiresAt > :now")
+})
+@NamedNativeQueries({
+        @NamedNativeQuery(name = "deleteExpiredCustomerAuth", query = "delete from customer_auth where id in " +
+                "(select id from customer_auth where expires_at < :expiredBefore limit :batchSize)"),
+        @NamedNativeQuery(name = "deleteLoggedOutCustomerAuth", query = "delete from customer_auth where id in " +
+                "(select id from customer_auth where logout_at < :loggedOutBefore limit :batchSize)")
 })
 public class CustomerAuthEntity implements Serializable {
 
     @Id
     @Column(name = "id")
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_auth_id_seq")
+    @SequenceGenerator(name = "customer_auth_id_seq", sequenceName = "customer_auth_id_seq", allocationSize = 50)
     private long id;
 
     @Column(name = "UUID", length = 64, nullable = false)
@@ -31,6 +42,10 @@ public class CustomerAuthEntity implements Serializable {
     @Column(name = "access_token",length = 500, nullable = false)
     private String accessToken;
 
+    //SHA-256 of the access token, the access token is looked up by this fixed-width uniquely indexed column.
+    @Column(name = "access_token_digest", length = 32, nullable = false)
+    private byte[] accessTokenDigest;
+
     @Column(name = "EXPIRES_AT", nullable = false)
     private ZonedDateTime expiresAt;
 
@@ -48,6 +63,7 @@ public class CustomerAuthEntity implements Serializable {
         this.uuid = uuid;
         this.customer = customer;
         this.accessToken = accessToken;
+        this.accessTokenDigest = TokenDigest.sha256(accessToken);
         this.expiresAt = expiresAt;
         this.loginAt = loginAt;
         this.logoutAt = logoutAt;
@@ -83,6 +99,11 @@ public class CustomerAuthEntity implements Serializable {
 
     public void setAccessToken(String accessToken) {
         this.accessToken = accessToken;
+        this.accessTokenDigest = TokenDigest.sha256(accessToken);
+    }
+
+    public byte[] getAccessTokenDigest() {
+        return accessTokenDigest;
     }
 
     public ZonedDateTime getExpiresAt() {
@@ -14,12 +14,14 @@ import java.io.Serializable;
 @NamedQueries({
         @NamedQuery(name = "customerByContactNumber", query = "select c from CustomerEntity c where " +
                 "c.contactNumber = :contactNumber"),
-        @NamedQuery(name = "customerById", query = "select c from CustomerEntity c where c.id =:id")
+        @NamedQuery(name = "customerById", query = "select c from CustomerEntity c where c.id =:id"),
+        @NamedQuery(name = "customerByUuid", query = "select c from CustomerEntity c where c.uuid =:uuid")
 })
 public class CustomerEntity implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_id_seq")
+    @SequenceGenerator(name = "customer_id_seq", sequenceName = "customer_id_seq", allocationSize = 50)
     private Integer id;
 
     @Column(name = "UUID", length = 64, nullable = false)
@@ -14,12 +14,14 @@ import java.util.List;
 @Entity
 @Table(name = "item")
 @NamedQueries({
-        @NamedQuery(name = "getItemsByCategoryAndStore", query = "select i from ItemEntity i inner join i.categories c where i.store.uuid = :storeId and c.uuid= :categoryId order by i.itemName asc")
+        @NamedQuery(name = "allItemRows", query = "select new com.upgrad.Grofers.service.dao.ItemRow(" +
+                "i.id, i.uuid, i.itemName, i.price, s.id) from ItemEntity i left join i.store s")
 })
 public class ItemEntity implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "item_id_seq")
+    @SequenceGenerator(name = "item_id_seq", sequenceName = "item_id_seq", allocationSize = 50)
     private Integer id;
 
     @Column(name = "UUID", length = 64, nullable = false)
@@ -33,7 +35,7 @@ public class ItemEntity implements Serializable {
 
     @JsonIgnore
     @ManyToOne
-    @JoinTable(name = "store_item", joinColumns = @JoinColumn(name = "item_id"), inverseJoinColumns = @JoinColumn(name = "store_id"))
+    @JoinTable(name = "stores_item", joinColumns = @JoinColumn(name = "item_id"), inverseJoinColumns = @JoinColumn(name = "store_id"))
     private StoreEntity store;
 
     @JsonIgnore
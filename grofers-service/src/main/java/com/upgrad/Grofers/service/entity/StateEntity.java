@@ -1,5 +1,8 @@
 package com.upgrad.Grofers.service.entity;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+
 import javax.persistence.*;
 import java.io.Serializable;
 
@@ -9,14 +12,19 @@ import java.io.Serializable;
  */
 @Entity
 @Table(name = "state")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
 @NamedQueries({
-        @NamedQuery(name = "getStateByUUID", query = "select s from StateEntity s where s.uuid =:uuid"),
+        @NamedQuery(name = "getStateByUUID", query = "select s from StateEntity s where s.uuid =:uuid",
+                hints = {@QueryHint(name = "org.hibernate.cacheable", value = "true"),
+                        @QueryHint(name = "org.hibernate.cacheRegion", value = "reference-queries")}),
         @NamedQuery(name = "getAllStates", query = "select s from StateEntity s")
 })
 public class StateEntity implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "state_id_seq")
+    @SequenceGenerator(name = "state_id_seq", sequenceName = "state_id_seq", allocationSize = 50)
     private Integer id;
 
     @Column(name = "UUID", length = 64, nullable = false)
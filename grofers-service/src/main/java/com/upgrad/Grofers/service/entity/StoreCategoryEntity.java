@@ -10,7 +10,8 @@ import javax.persistence.*;
 public class StoreCategoryEntity {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stores_category_id_seq")
+	@SequenceGenerator(name = "stores_category_id_seq", sequenceName = "stores_category_id_seq", allocationSize = 50)
 	private Integer id;
 
 	@Column(name = "UUID", length = 64, nullable = false)
@@ -17,18 +17,17 @@ import java.util.Set;
 @Entity
 @Table(name = "stores")
 @NamedQueries({
-		@NamedQuery(name = "storesByName", query = "select s from StoreEntity s where UPPER" +
-				"(s.storeName) LIKE concat('%',UPPER(:storeName),'%') ORDER BY s.storeName ASC"),
-		@NamedQuery(name = "storesByRating", query = "select s from StoreEntity s ORDER BY s.customerRating DESC"),
-		@NamedQuery(name = "storesByUUID", query = "select s from StoreEntity s where s.uuid = :uuid"),
-		@NamedQuery(name = "storesByCategory", query = "select distinct s FROM StoreEntity s " +
-				"INNER JOIN s.categories c WHERE c.uuid = :uuid " +
-				"ORDER BY s.storeName ASC")
+		@NamedQuery(name = "allStoreRows", query = "select new com.upgrad.Grofers.service.dao.StoreRow(" +
+				"s.id, s.uuid, s.storeName, s.customerRating, s.numberCustomersRated, " +
+				"a.id, a.uuid, a.flatBuilNo, a.locality, a.city, a.pincode, st.id) " +
+				"from StoreEntity s INNER JOIN s.address a INNER JOIN a.state st"),
+		@NamedQuery(name = "allStoreCategoryIds", query = "select s.id, c.id from StoreEntity s INNER JOIN s.categories c")
 })
 public class StoreEntity implements Serializable {
 
 	@Id
-	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	@GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "stores_id_seq")
+	@SequenceGenerator(name = "stores_id_seq", sequenceName = "stores_id_seq", allocationSize = 50)
 	private Integer id;
 
 	@Column(name = "UUID", length = 64, nullable = false)
@@ -47,11 +46,11 @@ public class StoreEntity implements Serializable {
 	private AddressEntity address;
 
 	@OneToMany
-	@JoinTable(name = "store_item", joinColumns = @JoinColumn(name = "store_id"), inverseJoinColumns = @JoinColumn(name = "item_id"))
+	@JoinTable(name = "stores_item", joinColumns = @JoinColumn(name = "store_id"), inverseJoinColumns = @JoinColumn(name = "item_id"))
 	private List<ItemEntity> items = new ArrayList<>();
 
 	@ManyToMany
-	@JoinTable(name = "store_category", joinColumns = @JoinColumn(name = "store_id"), inverseJoinColumns = @JoinColumn(name = "category_id"))
+	@JoinTable(name = "stores_category", joinColumns = @JoinColumn(name = "store_id"), inverseJoinColumns = @JoinColumn(name = "category_id"))
 	private List<CategoryEntity> categories = new ArrayList<>();
 
 	public StoreEntity() {
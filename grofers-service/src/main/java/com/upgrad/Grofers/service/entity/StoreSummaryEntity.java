@@ -0,0 +1,138 @@
+package com.upgrad.Grofers.service.entity;
+
+import org.hibernate.annotations.Immutable;
+
+import javax.persistence.*;
+import java.io.Serializable;
+
+/**
+ * StoreSummaryEntity class is mapped to the store_summary read model in the database: one row per store with
+ * everything a store listing shows, the flattened address and state and the comma-joined category names.
+ * The rows are maintained by database triggers on the stores, stores_category, category, address and state tables,
+ * so the application only ever reads them.
+ */
+@Entity
+@Immutable
+@Table(name = "store_summary")
+@NamedQueries({
+        @NamedQuery(name = "allStoreSummaries", query = "select s from StoreSummaryEntity s " +
+                "ORDER BY s.customerRating DESC, s.storeId ASC")
+})
+public class StoreSummaryEntity implements Serializable {
+
+    @Id
+    @Column(name = "store_id")
+    private Integer storeId;
+
+    @Column(name = "store_uuid", nullable = false)
+    private String storeUuid;
+
+    @Column(name = "store_name", nullable = false)
+    private String storeName;
+
+    @Column(name = "customer_rating", nullable = false)
+    private Double customerRating;
+
+    @Column(name = "number_of_customers_rated", nullable = false)
+    private Integer numberCustomersRated;
+
+    @Column(name = "address_uuid")
+    private String addressUuid;
+
+    @Column(name = "flat_buil_number")
+    private String flatBuilNo;
+
+    @Column(name = "locality")
+    private String locality;
+
+    @Column(name = "city")
+    private String city;
+
+    @Column(name = "pincode")
+    private String pincode;
+
+    @Column(name = "state_uuid")
+    private String stateUuid;
+
+    @Column(name = "state_name")
+    private String stateName;
+
+    @Column(name = "categories", nullable = false)
+    private String categories;
+
+    protected StoreSummaryEntity() {
+    }
+
+    public StoreSummaryEntity(Integer storeId, String storeUuid, String storeName, Double customerRating,
+                              Integer numberCustomersRated, String addressUuid, String flatBuilNo, String locality,
+                              String city, String pincode, String stateUuid, String stateName, String categories) {
+        this.storeId = storeId;
+        this.storeUuid = storeUuid;
+        this.storeName = storeName;
+        this.customerRating = customerRating;
+        this.numberCustomersRated = numberCustomersRated;
+        this.addressUuid = addressUuid;
+        this.flatBuilNo = flatBuilNo;
+        this.locality = locality;
+        this.city = city;
+        this.pincode = pincode;
+        this.stateUuid = stateUuid;
+        this.stateName = stateName;
+        this.categories = categories;
+    }
+
+    public Integer getStoreId() {
+        return storeId;
+    }
+
+    public String getStoreUuid() {
+        return storeUuid;
+    }
+
+    public String getStoreName() {
+        return storeName;
+    }
+
+    public Double getCustomerRating() {
+        return customerRating;
+    }
+
+    public Integer getNumberCustomersRated() {
+        return numberCustomersRated;
+    }
+
+    public String getAddressUuid() {
+        return addressUuid;
+    }
+
+    public String getFlatBuilNo() {
+        return flatBuilNo;
+    }
+
+    public String getLocality() {
+        return locality;
+    }
+
+    public String getCity() {
+        return city;
+    }
+
+    public String getPincode() {
+        return pincode;
+    }
+
+    public String getStateUuid() {
+        return stateUuid;
+    }
+
+    public String getStateName() {
+        return stateName;
+    }
+
+    /**
+     * @return the names of the store's categories in name order, separated by ", ".
+     */
+    public String getCategories() {
+        return categories;
+    }
+}
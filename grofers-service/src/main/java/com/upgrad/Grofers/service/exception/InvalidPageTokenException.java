@@ -0,0 +1,42 @@
+package com.upgrad.Grofers.service.exception;
+
+import java.io.PrintStream;
+import java.io.PrintWriter;
+
+/**
+ * InvalidPageTokenException is thrown when the page token sent by the customer cannot be decoded or belongs to another listing.
+ */
+public class InvalidPageTokenException extends Exception {
+    private final String code;
+    private final String errorMessage;
+
+    public InvalidPageTokenException(final String code, final String errorMessage) {
+        this.code = code;
+        this.errorMessage = errorMessage;
+    }
+
+    @Override
+    public void printStackTrace() {
+        super.printStackTrace();
+    }
+
+    @Override
+    public void printStackTrace(PrintStream s) {
+        super.printStackTrace(s);
+    }
+
+    @Override
+    public void printStackTrace(PrintWriter s) {
+        super.printStackTrace(s);
+    }
+
+    public String getCode() {
+        return code;
+    }
+
+    public String getErrorMessage() {
+        return errorMessage;
+    }
+
+}
+
@@ -0,0 +1,63 @@
+package com.upgrad.Grofers.service.business;
+
+import com.upgrad.Grofers.service.dao.CategoryRow;
+import com.upgrad.Grofers.service.dao.ItemRow;
+import com.upgrad.Grofers.service.dao.StoreRow;
+import com.upgrad.Grofers.service.entity.StateEntity;
+import com.upgrad.Grofers.service.entity.StoreSummaryEntity;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+
+public class CatalogSnapshotTest {
+
+    @Test
+    public void fingerprintDoesNotDependOnRowOrder() {
+        List<Object[]> storeCategoryIds = pairs(1, 40, 2, 9);
+        List<Object[]> reversed = new ArrayList<>(storeCategoryIds);
+        Collections.reverse(reversed);
+        assertEquals(fingerprint(storeCategoryIds, pairs(9, 100)), fingerprint(reversed, pairs(9, 100)));
+    }
+
+    @Test
+    public void remappedStoreCategoryChangesTheFingerprint() {
+        // Objects.hash("stores_category", 1, 40) == Objects.hash("stores_category", 2, 9)
+        assertNotEquals(fingerprint(pairs(1, 40), pairs(9, 100)), fingerprint(pairs(2, 9), pairs(9, 100)));
+    }
+
+    @Test
+    public void swappedItemLinksChangeTheFingerprint() {
+        assertNotEquals(fingerprint(pairs(1, 9), pairs(9, 100, 40, 101)),
+                fingerprint(pairs(1, 9), pairs(9, 101, 40, 100)));
+    }
+
+    private static String fingerprint(List<Object[]> storeCategoryIds, List<Object[]> categoryItemIds) {
+        StateEntity state = new StateEntity("state-1", "Karnataka");
+        state.setId(1);
+        List<StoreRow> stores = Arrays.asList(
+                new StoreRow(1, "store-1", "Fresh Mart", 4.5, 10, 1, "address-1", "12", "Indiranagar", "Bengaluru",
+                        "560038", 1),
+                new StoreRow(2, "store-2", "Daily Needs", 4.0, 3, 2, "address-2", "7", "Koramangala", "Bengaluru",
+                        "560034", 1));
+        List<CategoryRow> categories = Arrays.asList(new CategoryRow(9, "category-9", "Dairy"),
+                new CategoryRow(40, "category-40", "Bakery"));
+        List<ItemRow> items = Arrays.asList(new ItemRow(100, "item-100", "Milk", 30, 1),
+                new ItemRow(101, "item-101", "Bread", 40, 1));
+        return CatalogSnapshot.build(1, null, Collections.singletonList(state), stores, categories, items,
+                storeCategoryIds, categoryItemIds, Collections.<StoreSummaryEntity>emptyList()).fingerprint();
+    }
+
+    private static List<Object[]> pairs(int... ids) {
+        List<Object[]> pairs = new ArrayList<>();
+        for (int i = 0; i < ids.length; i += 2) {
+            pairs.add(new Object[]{ids[i], ids[i + 1]});
+        }
+        return pairs;
+    }
+}
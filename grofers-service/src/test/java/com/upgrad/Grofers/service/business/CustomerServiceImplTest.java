@@ -0,0 +1,73 @@
+package com.upgrad.Grofers.service.business;
+
+import com.upgrad.Grofers.service.dao.CustomerDao;
+import com.upgrad.Grofers.service.entity.CustomerEntity;
+import com.upgrad.Grofers.service.exception.AuthorizationFailedException;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+public class CustomerServiceImplTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    private CustomerDao customerDao;
+
+    private JwtTokenProvider jwtTokenProvider;
+
+    private RevokedAccessTokens revokedAccessTokens;
+
+    private CustomerServiceImpl customerService;
+
+    @Before
+    public void setUp() {
+        customerDao = mock(CustomerDao.class);
+        jwtTokenProvider = new JwtTokenProvider(SECRET);
+        revokedAccessTokens = new RevokedAccessTokens();
+        ReflectionTestUtils.setField(revokedAccessTokens, "customerDao", customerDao);
+        ReflectionTestUtils.setField(revokedAccessTokens, "stateless", true);
+        customerService = new CustomerServiceImpl();
+        ReflectionTestUtils.setField(customerService, "customerDao", customerDao);
+        ReflectionTestUtils.setField(customerService, "jwtTokenProvider", jwtTokenProvider);
+        ReflectionTestUtils.setField(customerService, "revokedAccessTokens", revokedAccessTokens);
+        ReflectionTestUtils.setField(customerService, "stateless", true);
+    }
+
+    @Test
+    public void statelessCustomerLookupDoesNotReadTheSession() throws AuthorizationFailedException {
+        CustomerEntity customerEntity = new CustomerEntity();
+        when(customerDao.getCustomerByUuid("customer-uuid")).thenReturn(customerEntity);
+
+        assertSame(customerEntity, customerService.getCustomer(token("customer-uuid")));
+        verify(customerDao, never()).getCustomerAuthByAccesstoken(anyString());
+    }
+
+    @Test
+    public void statelessCustomerLookupRejectsALoggedOutToken() {
+        String accessToken = token("customer-uuid");
+        revokedAccessTokens.add(accessToken, ZonedDateTime.now().plusHours(8));
+        try {
+            customerService.getCustomer(accessToken);
+            fail("A logged-out token was accepted");
+        } catch (AuthorizationFailedException e) {
+            assertEquals("ATHR-002", e.getCode());
+        }
+        verify(customerDao, never()).getCustomerAuthByAccesstoken(anyString());
+    }
+
+    private String token(final String customerUuid) {
+        ZonedDateTime now = ZonedDateTime.now();
+        return jwtTokenProvider.generateToken(customerUuid, now, now.plusHours(8));
+    }
+}
@@ -0,0 +1,35 @@
+package com.upgrad.Grofers.service.business;
+
+import org.junit.Test;
+
+import java.time.ZonedDateTime;
+
+import static org.junit.Assert.assertEquals;
+
+public class JwtTokenProviderTest {
+
+    private static final String SECRET = "0123456789abcdef0123456789abcdef0123456789abcdef0123456789abcdef";
+
+    @Test(expected = IllegalStateException.class)
+    public void missingSecretIsRejected() {
+        new JwtTokenProvider("");
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void nullSecretIsRejected() {
+        new JwtTokenProvider(null);
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void secretShorterThan64BytesIsRejected() {
+        new JwtTokenProvider(SECRET.substring(1));
+    }
+
+    @Test
+    public void tokenSignedWithTheSecretIsVerified() {
+        JwtTokenProvider provider = new JwtTokenProvider(SECRET);
+        ZonedDateTime now = ZonedDateTime.now();
+        String token = provider.generateToken("customer-uuid", now, now.plusHours(8));
+        assertEquals("customer-uuid", provider.verify(token).getAudience().get(0));
+    }
+}
@@ -0,0 +1,98 @@
+package com.upgrad.Grofers.service.business;
+
+import com.upgrad.Grofers.service.exception.LoginThrottledException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+public class LoginThrottleTest {
+
+    private static final String CONTACT_NUMBER = "9000000000";
+
+    private LoginThrottle loginThrottle;
+
+    @Before
+    public void setUp() {
+        loginThrottle = new LoginThrottle();
+        ReflectionTestUtils.setField(loginThrottle, "meterRegistry", new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(loginThrottle, "accountCapacity", 5);
+        ReflectionTestUtils.setField(loginThrottle, "accountRefillPerMinute", 5d);
+        ReflectionTestUtils.setField(loginThrottle, "addressCapacity", 30);
+        ReflectionTestUtils.setField(loginThrottle, "addressRefillPerMinute", 60d);
+        // 4 buckets in each of the 64 stripes.
+        ReflectionTestUtils.setField(loginThrottle, "maxBuckets", 256);
+        loginThrottle.start();
+    }
+
+    @Test
+    public void exhaustedAccountIsThrottled() throws LoginThrottledException {
+        exhaust(CONTACT_NUMBER);
+        assertThrottled(CONTACT_NUMBER);
+    }
+
+    @Test
+    public void exhaustedAccountSurvivesFewerNewKeysThanItsStripeHolds() throws LoginThrottledException {
+        exhaust(CONTACT_NUMBER);
+        for (String contactNumber : contactNumbersInStripeOf(CONTACT_NUMBER, 3)) {
+            loginThrottle.acquire(contactNumber, null);
+        }
+        assertThrottled(CONTACT_NUMBER);
+    }
+
+    @Test
+    public void sprayedKeysDoNotThrottleAnUnrelatedAccount() throws LoginThrottledException {
+        // Every stripe is filled with exhausted buckets, none of which refills during the test.
+        for (int stripe = 0; stripe < 64; stripe++) {
+            for (String contactNumber : contactNumbersInStripe(stripe, 4)) {
+                exhaust(contactNumber);
+            }
+        }
+        loginThrottle.acquire(CONTACT_NUMBER, null);
+    }
+
+    private void exhaust(final String contactNumber) throws LoginThrottledException {
+        for (int attempt = 0; attempt < 5; attempt++) {
+            loginThrottle.acquire(contactNumber, null);
+        }
+    }
+
+    private void assertThrottled(final String contactNumber) {
+        try {
+            loginThrottle.acquire(contactNumber, null);
+            fail("Login for " + contactNumber + " was not throttled");
+        } catch (LoginThrottledException e) {
+            assertEquals("ATH-003", e.getCode());
+        }
+    }
+
+    /**
+     * @return other contact numbers whose buckets share the lock stripe of the given contact number.
+     */
+    private static List<String> contactNumbersInStripeOf(final String contactNumber, final int count) {
+        return contactNumbersInStripe(stripe(contactNumber), count);
+    }
+
+    /**
+     * @return contact numbers whose buckets fall in the given lock stripe.
+     */
+    private static List<String> contactNumbersInStripe(final int stripe, final int count) {
+        final List<String> contactNumbers = new ArrayList<>();
+        for (long candidate = 8000000000L; contactNumbers.size() < count; candidate++) {
+            if (stripe(Long.toString(candidate)) == stripe) {
+                contactNumbers.add(Long.toString(candidate));
+            }
+        }
+        return contactNumbers;
+    }
+
+    private static int stripe(final String contactNumber) {
+        return (("account:" + contactNumber).hashCode() & 0x7fffffff) % 64;
+    }
+}
@@ -0,0 +1,37 @@
+package com.upgrad.Grofers.service.business;
+
+import com.upgrad.Grofers.service.dao.CustomerDao;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.ZonedDateTime;
+import java.util.Map;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.mockito.Mockito.mock;
+
+public class RevokedAccessTokensTest {
+
+    @Test
+    public void logoutsAreNotRecordedOutsideTheStatelessMode() {
+        RevokedAccessTokens revokedAccessTokens = revokedAccessTokens(false);
+        revokedAccessTokens.add("access-token", ZonedDateTime.now().plusHours(8));
+        assertTrue(((Map<?, ?>) ReflectionTestUtils.getField(revokedAccessTokens, "expiresAtByToken")).isEmpty());
+    }
+
+    @Test
+    public void logoutsAreRecordedInTheStatelessMode() {
+        RevokedAccessTokens revokedAccessTokens = revokedAccessTokens(true);
+        revokedAccessTokens.add("access-token", ZonedDateTime.now().plusHours(8));
+        assertTrue(revokedAccessTokens.contains("access-token"));
+        assertFalse(revokedAccessTokens.contains("other-token"));
+    }
+
+    private static RevokedAccessTokens revokedAccessTokens(final boolean stateless) {
+        RevokedAccessTokens revokedAccessTokens = new RevokedAccessTokens();
+        ReflectionTestUtils.setField(revokedAccessTokens, "customerDao", mock(CustomerDao.class));
+        ReflectionTestUtils.setField(revokedAccessTokens, "stateless", stateless);
+        return revokedAccessTokens;
+    }
+}
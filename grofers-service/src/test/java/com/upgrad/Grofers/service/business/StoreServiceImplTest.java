@@ -0,0 +1,83 @@
+package com.upgrad.Grofers.service.business;
+
+import com.upgrad.Grofers.service.dao.CategoryRow;
+import com.upgrad.Grofers.service.dao.ItemRow;
+import com.upgrad.Grofers.service.dao.StoreRow;
+import com.upgrad.Grofers.service.entity.CategoryEntity;
+import com.upgrad.Grofers.service.entity.ItemEntity;
+import com.upgrad.Grofers.service.entity.StateEntity;
+import com.upgrad.Grofers.service.entity.StoreEntity;
+import com.upgrad.Grofers.service.entity.StoreSummaryEntity;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * The store details endpoint is served from the catalog snapshot: the store, its address and state, its categories and
+ * their items are all resolved from it, whatever the number of categories, and the catalog is never reloaded for it.
+ */
+public class StoreServiceImplTest {
+
+    private static final int CATEGORIES = 40;
+
+    private CatalogSnapshotService catalogSnapshotService;
+
+    private StoreServiceImpl storeService;
+
+    private ItemServiceImpl itemService;
+
+    @Before
+    public void setUp() {
+        catalogSnapshotService = mock(CatalogSnapshotService.class);
+        when(catalogSnapshotService.snapshot()).thenReturn(snapshot());
+        storeService = new StoreServiceImpl();
+        ReflectionTestUtils.setField(storeService, "catalogSnapshotService", catalogSnapshotService);
+        itemService = new ItemServiceImpl();
+        ReflectionTestUtils.setField(itemService, "catalogSnapshotService", catalogSnapshotService);
+    }
+
+    @Test
+    public void storeDetailsAreResolvedFromTheSnapshot() throws Exception {
+        StoreEntity store = storeService.StoreDetailsByUUID("store-1");
+        assertEquals("Karnataka", store.getAddress().getState().getStateName());
+        assertEquals(CATEGORIES, store.getCategories().size());
+
+        List<ItemEntity> items = itemService.getItemsByStore("store-1");
+        assertEquals(CATEGORIES, items.size());
+        for (ItemEntity item : items) {
+            assertEquals(1, item.getCategories().size());
+            CategoryEntity category = item.getCategories().get(0);
+            assertEquals("Item of " + category.getCategoryName(), item.getItemName());
+        }
+        verify(catalogSnapshotService, never()).refresh();
+    }
+
+    private static CatalogSnapshot snapshot() {
+        StateEntity state = new StateEntity("state-1", "Karnataka");
+        state.setId(1);
+        List<CategoryRow> categories = new ArrayList<>();
+        List<ItemRow> items = new ArrayList<>();
+        List<Object[]> storeCategoryIds = new ArrayList<>();
+        List<Object[]> categoryItemIds = new ArrayList<>();
+        for (int id = 1; id <= CATEGORIES; id++) {
+            categories.add(new CategoryRow(id, "category-" + id, "Category " + id));
+            items.add(new ItemRow(id, "item-" + id, "Item of Category " + id, 10 * id, 1));
+            storeCategoryIds.add(new Object[]{1, id});
+            categoryItemIds.add(new Object[]{id, id});
+        }
+        return CatalogSnapshot.build(1, null, Collections.singletonList(state),
+                Collections.singletonList(new StoreRow(1, "store-1", "Fresh Mart", 4.5, 10, 1, "address-1", "12",
+                        "Indiranagar", "Bengaluru", "560038", 1)),
+                categories, items, storeCategoryIds, categoryItemIds, Collections.<StoreSummaryEntity>emptyList());
+    }
+}